@@ -0,0 +1,115 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.event.InputEvent;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveRendererTest {
+
+    //positive test
+    @Test
+    void frameStatsCountsFramesOverBudget() {
+        FrameStats stats = new FrameStats(60);
+        assertEquals(16_666_666L, stats.getBudgetNanos());
+        stats.frame(5_000_000L);
+        stats.frame(20_000_000L);
+        stats.dropped(2);
+        assertEquals(2, stats.getFrames());
+        assertEquals(1, stats.getOverBudget());
+        assertEquals(2, stats.getDropped());
+        String report = stats.report();
+        assertTrue(report.contains("dropped 2"), report);
+        assertTrue(report.contains("over budget 1"), report);
+    }
+
+    //positive test
+    @Test
+    void animationProgress() {
+        assertEquals(0, ActiveRenderer.progress(100, 50, 100));
+        assertEquals(0.5, ActiveRenderer.progress(100, 150, 100));
+        assertEquals(1, ActiveRenderer.progress(100, 500, 100));
+        assertEquals(0, ActiveRenderer.easeOut(0));
+        assertEquals(0.75, ActiveRenderer.easeOut(0.5));
+        assertEquals(1, ActiveRenderer.easeOut(1));
+    }
+
+    //positive test
+    @Test
+    void drawsMoveAnimation() throws InterruptedException {
+        Game game = new Game();
+        game.setBackground(Color.black);
+        ActiveRenderer renderer = new ActiveRenderer(game, 60);
+        game.setSize(game.getPreferredSize());
+        renderer.getCanvas().setSize(game.getPreferredSize());
+        BufferedImage image = new BufferedImage(721, 687, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        game.startNewGame();
+        renderer.draw(g, 0);
+
+        GameEngine engine = game.getEngine();
+        GameMap map = engine.getMap();
+        int from = engine.getCurrRoom();
+        int to = emptyNeighbour(engine, from);
+        TurnResult before = game.getState();
+        game.handleMousePress(new MouseEvent(game, MouseEvent.MOUSE_PRESSED, 0,
+                InputEvent.BUTTON1_DOWN_MASK, map.x(to) + GameView.roomSize / 2,
+                map.y(to) + GameView.roomSize / 2, 1, false, MouseEvent.BUTTON1));
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (game.getState() == before && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertEquals(to, game.getState().currRoom);
+
+        long half = ActiveRenderer.moveNanos / 2;
+        renderer.draw(g, 0);
+        renderer.draw(g, half);
+        double t = ActiveRenderer.easeOut(0.5);
+        Point middle = playerCentre(game, map.x(from) + (map.x(to) - map.x(from)) * t,
+                map.y(from) + (map.y(to) - map.y(from)) * t);
+        assertTrue(isPlayer(image, middle));
+        assertFalse(isPlayer(image, playerCentre(game, map.x(from), map.y(from))));
+        assertFalse(isPlayer(image, playerCentre(game, map.x(to), map.y(to))));
+
+        renderer.draw(g, ActiveRenderer.moveNanos);
+        assertTrue(isPlayer(image, playerCentre(game, map.x(to), map.y(to))));
+        assertFalse(isPlayer(image, middle));
+        g.dispose();
+    }
+
+    private static int emptyNeighbour(GameEngine engine, int room) {
+        GameMap map = engine.getMap();
+        for (int i = 0; i < map.degree(room); i++) {
+            int next = map.link(room, i);
+            boolean empty = true;
+            for (Creatures creature : Creatures.values())
+                empty &= !engine.hasCreature(next, creature);
+            if (empty)
+                return next;
+        }
+        throw new AssertionError("No empty room next to " + room);
+    }
+
+    /**
+     * Returns the middle of the player drawn in a room at the given position.
+     */
+    private static Point playerCentre(Game game, double roomX, double roomY) {
+        Point position = new GameGraphics(game).calculatePlayerPosition((int) Math.round(roomX),
+                (int) Math.round(roomY), GameView.roomSize, GameView.playerSize);
+        return new Point(position.x + GameView.playerSize / 2, position.y - GameView.playerSize / 3);
+    }
+
+    private static boolean isPlayer(BufferedImage image, Point p) {
+        return (image.getRGB(p.x, p.y) & 0xffffff) == 0xffffff;
+    }
+
+    //negative test
+    @Test
+    void invalidFrameRate() {
+        assertThrows(IllegalArgumentException.class, () -> new FrameStats(0));
+        assertThrows(NullPointerException.class, () -> new ActiveRenderer(null, 60));
+    }
+}
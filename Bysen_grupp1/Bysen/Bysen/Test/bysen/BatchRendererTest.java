@@ -0,0 +1,63 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRendererTest {
+    private final GameMap map = GameMap.dodecahedron();
+
+    private static boolean samePixels(BufferedImage a, BufferedImage b) {
+        for (int y = 0; y < a.getHeight(); y++)
+            for (int x = 0; x < a.getWidth(); x++)
+                if (a.getRGB(x, y) != b.getRGB(x, y))
+                    return false;
+        return true;
+    }
+
+    //positive test
+    @Test
+    void rendersStatesToPngFiles(@TempDir Path directory) throws IOException, InterruptedException {
+        List<TurnResult> states = BatchRenderer.sampleStates(map, 12, 3);
+        assertSame(TurnResult.initial, states.get(0));
+        BatchRenderer renderer = new BatchRenderer(map, 200, 150, 3);
+        BatchRenderer.Report report = renderer.render(states, directory);
+        assertEquals(12, report.getImages());
+        assertTrue(report.getImagesPerSecond() > 0);
+        for (int i = 0; i < states.size(); i++) {
+            BufferedImage image = ImageIO.read(directory.resolve(String.format("state-%05d.png", i)).toFile());
+            assertEquals(200, image.getWidth());
+            assertEquals(150, image.getHeight());
+        }
+    }
+
+    //positive test
+    @Test
+    void reusedWorkerDrawsTheSameImage(@TempDir Path directory) throws IOException, InterruptedException {
+        List<TurnResult> states = BatchRenderer.sampleStates(map, 3, 5);
+        BatchRenderer renderer = new BatchRenderer(map, 721, 687, 1);
+        renderer.render(List.of(states.get(2), states.get(0), states.get(2)), directory);
+        BufferedImage first = ImageIO.read(directory.resolve("state-00000.png").toFile());
+        BufferedImage again = ImageIO.read(directory.resolve("state-00002.png").toFile());
+        assertTrue(samePixels(first, again));
+        assertTrue(samePixels(first, renderer.render(states.get(2))));
+        assertFalse(samePixels(first, renderer.render(states.get(0))));
+    }
+
+    //negative test
+    @Test
+    void invalidArguments() {
+        assertThrows(NullPointerException.class, () -> new BatchRenderer(null, 10, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BatchRenderer(map, 0, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BatchRenderer(map, 10, 10, 0));
+        assertThrows(NullPointerException.class, () -> new BatchRenderer(map, 10, 10, 1).render(null, null));
+        assertThrows(IllegalArgumentException.class, () -> BatchRenderer.sampleStates(map, -1, 0));
+    }
+}
@@ -0,0 +1,76 @@
+package bysen;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeliefSolverTest {
+    private GameEngine engine;
+    private BeliefSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        engine = new GameEngine(new SplittableRandom(42));
+        engine.startNewGame("Test");
+        solver = new BeliefSolver();
+        solver.newGame(engine);
+    }
+
+    private double bysenTotal() {
+        double total = 0;
+        for (int room = 0; room < engine.getMap().getRoomCount(); room++)
+            total += solver.bysenProbability(room);
+        return total;
+    }
+
+    //positive test
+    @Test
+    void bysenIsNeverNearTheStart() {
+        GameMap map = engine.getMap();
+        int start = engine.getCurrRoom();
+        assertEquals(1, bysenTotal(), 1e-9);
+        assertEquals(0, solver.bysenProbability(start));
+        for (int i = 0; i < map.degree(start); i++)
+            assertEquals(0, solver.bysenProbability(map.link(start, i)));
+    }
+
+    //positive test
+    @Test
+    void warningPutsBysenInALinkedRoom() {
+        engine.creatures.clear();
+        GameMap map = engine.getMap();
+        int room = map.link(engine.getCurrRoom(), 0);
+        int bysenRoom = map.link(room, 0) == engine.getCurrRoom() ? map.link(room, 1) : map.link(room, 0);
+        engine.creatures.add(bysenRoom, Creatures.Bysen);
+        engine.creatureRoom = bysenRoom;
+        engine.move(room);
+        solver.update(engine);
+        assertEquals(1, bysenTotal(), 1e-9);
+        for (int r = 0; r < map.getRoomCount(); r++)
+            if (!map.isLinked(room, r))
+                assertEquals(0, solver.bysenProbability(r));
+        assertTrue(MovePolicy.isThrow(solver.hint(engine)));
+    }
+
+    //positive test
+    @Test
+    void winsMoreOftenThanRandomMoves() {
+        SimulationResult random = new Simulation(GameEngine.defaultCreatureDistribution, 3,
+                RandomMovePolicy::new, 1000, 7).run(20_000);
+        SimulationResult belief = new Simulation(GameEngine.defaultCreatureDistribution, 3,
+                BeliefSolver::new, 1000, 7).run(20_000);
+        assertTrue(belief.getWinRate() > random.getWinRate(),
+                belief.getWinRate() + " <= " + random.getWinRate());
+    }
+
+    //negative test
+    @Test
+    void nextActionBeforeNewGame() {
+        assertThrows(IllegalStateException.class,
+                () -> new BeliefSolver().nextAction(engine, new SplittableRandom(1)));
+        assertThrows(IllegalArgumentException.class, () -> solver.dangerProbability(0, Creatures.Tomte));
+    }
+}
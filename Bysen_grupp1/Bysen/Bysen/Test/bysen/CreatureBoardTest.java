@@ -0,0 +1,43 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CreatureBoardTest {
+
+    //positive test
+    @Test
+    void addMoveAndRemoveOnLargeMap() {
+        CreatureBoard board = new CreatureBoard(200);
+        assertEquals(4, board.getWords());
+        board.add(3, Creatures.Troll);
+        board.add(130, Creatures.Troll);
+        board.move(Creatures.Troll, 130, 199);
+        assertTrue(board.contains(199, Creatures.Troll));
+        assertFalse(board.contains(130, Creatures.Troll));
+        assertEquals(2, board.count(Creatures.Troll));
+        int[][] links = new int[200][];
+        for (int room = 0; room < 200; room++)
+            links[room] = new int[]{(room + 199) % 200, (room + 1) % 200}; // a ring
+        GameMap map = GameMap.fromLinks(new int[200], new int[200], links);
+        assertTrue(board.containsLinked(Creatures.Troll, map, 0));
+    }
+
+    //positive test
+    @Test
+    void roomMaskAndClearRoom() {
+        CreatureBoard board = new CreatureBoard(20);
+        board.add(7, Creatures.Bysen);
+        board.add(7, Creatures.Vittra);
+        assertEquals((1 << Creatures.Bysen.ordinal()) | (1 << Creatures.Vittra.ordinal()), board.roomMask(7));
+        board.clearRoom(7);
+        assertTrue(board.isEmpty(7));
+    }
+
+    //negative test
+    @Test
+    void emptyMap() {
+        assertThrows(IllegalArgumentException.class, () -> new CreatureBoard(0));
+    }
+}
@@ -0,0 +1,80 @@
+package bysen;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEngineTest {
+    private GameEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new GameEngine(new Random(42));
+        engine.startNewGame("Test");
+    }
+
+    private void clearCreatures() {
+        engine.creatures.clear();
+    }
+
+    //positive test
+    @Test
+    void startNewGame() {
+        assertFalse(engine.isGameOver());
+        assertEquals(3, engine.getNumNets());
+        assertEquals("Test", engine.getPlayerName());
+        assertTrue(engine.hasCreature(engine.getCreatureRoom(), Creatures.Bysen));
+    }
+
+    //positive test
+    @Test
+    void moveIntoTrollRingEndsGame() {
+        clearCreatures();
+        int room = engine.map.link(engine.currRoom, 0);
+        engine.creatures.add(room, Creatures.Troll);
+        assertEquals(Outcome.FELL_INTO_TROLL_RING, engine.move(room));
+        assertTrue(engine.isGameOver());
+    }
+
+    //positive test
+    @Test
+    void throwNetAtBysenWins() {
+        clearCreatures();
+        int room = engine.map.link(engine.currRoom, 1);
+        engine.creatures.add(room, Creatures.Bysen);
+        engine.creatureRoom = room;
+        Outcome outcome = engine.throwNet(room);
+        assertTrue(outcome.isWin());
+        assertTrue(engine.isGameOver());
+    }
+
+    //positive test
+    @Test
+    void tomteAsksQuizUntilAnswered() {
+        clearCreatures();
+        int room = engine.map.link(engine.currRoom, 2);
+        engine.creatures.add(room, Creatures.Tomte);
+        assertEquals(Outcome.QUIZ, engine.move(room));
+        assertTrue(engine.isQuizPending());
+        assertEquals(Outcome.QUIZ_RIGHT, engine.answerQuiz(0));
+        assertEquals(4, engine.getNumNets());
+        assertFalse(engine.hasCreature(room, Creatures.Tomte));
+    }
+
+    //negative test
+    @Test
+    void moveToRoomThatIsNotLinked() {
+        int room = engine.currRoom;
+        assertEquals(Outcome.INVALID, engine.move(room));
+        assertEquals(room, engine.getCurrRoom());
+    }
+
+    //negative test, edge-case
+    @Test
+    void answerQuizWithoutQuestion() {
+        assertEquals(Outcome.INVALID, engine.answerQuiz(0));
+    }
+}
@@ -0,0 +1,87 @@
+package bysen;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventsTest {
+
+    private static List<RecordedEvent> record(Path dir, Runnable game) throws IOException {
+        Path file = dir.resolve("game.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[]{"bysen.NewGame", "bysen.Move", "bysen.NetThrow",
+                    "bysen.VittraTeleport", "bysen.Quiz", "bysen.Paint"})
+                recording.enable(name).withoutThreshold();
+            recording.start();
+            game.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    //positive test
+    @Test
+    void turnsAreRecorded(@TempDir Path dir) throws IOException {
+        GameEngine engine = new GameEngine(new SplittableRandom(3));
+        List<RecordedEvent> events = record(dir, () -> {
+            engine.startNewGame("Test");
+            engine.creatures.clear();
+            GameMap map = engine.getMap();
+            int vittraRoom = map.link(engine.getCurrRoom(), 0);
+            int tomteRoom = map.link(engine.getCurrRoom(), 1);
+            engine.creatures.add(vittraRoom, Creatures.Vittra);
+            engine.creatures.add(tomteRoom, Creatures.Tomte);
+            engine.creatures.add(map.link(engine.getCurrRoom(), 2), Creatures.Bysen);
+            engine.creatureRoom = map.link(engine.getCurrRoom(), 2);
+            engine.move(tomteRoom);
+            engine.answerQuiz(0);
+            engine.throwNet(map.link(engine.getCurrRoom(), 0));
+        });
+        Set<String> names = new HashSet<>();
+        for (RecordedEvent event : events)
+            names.add(event.getEventType().getName());
+        assertTrue(names.containsAll(Set.of("bysen.NewGame", "bysen.Move", "bysen.Quiz", "bysen.NetThrow")), names.toString());
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("bysen.Move"))
+                assertEquals("QUIZ", event.getString("outcome"));
+            if (event.getEventType().getName().equals("bysen.NewGame"))
+                assertEquals(20, event.getInt("roomCount"));
+        }
+    }
+
+    //positive test
+    @Test
+    void vittraTeleportIsRecorded(@TempDir Path dir) throws IOException {
+        GameEngine engine = new GameEngine(new SplittableRandom(3));
+        engine.startNewGame("Test");
+        engine.creatures.clear();
+        int vittraRoom = engine.getMap().link(engine.getCurrRoom(), 0);
+        engine.creatures.add(vittraRoom, Creatures.Vittra);
+        List<RecordedEvent> events = record(dir, () -> engine.move(vittraRoom));
+        RecordedEvent teleport = events.stream()
+                .filter(e -> e.getEventType().getName().equals("bysen.VittraTeleport"))
+                .findFirst().orElseThrow();
+        assertEquals(vittraRoom, teleport.getInt("vittraRoom"));
+        assertNotEquals(vittraRoom, teleport.getInt("newVittraRoom"));
+    }
+
+    //negative test
+    @Test
+    void invalidMoveIsNotRecorded(@TempDir Path dir) throws IOException {
+        GameEngine engine = new GameEngine(new SplittableRandom(3));
+        List<RecordedEvent> events = record(dir, () -> engine.move(0));
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().startsWith("bysen.")));
+    }
+}
@@ -0,0 +1,165 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameGraphicsTest {
+    Game mockGame;
+    GameGraphics gameGraphics;
+    @org.junit.jupiter.api.BeforeEach
+    void setUp() {
+        mockGame = new Game();
+        gameGraphics = new GameGraphics(mockGame);
+    }
+
+    @Test
+    void calculatePlayerPosition() {
+        Room room = new Room(100, 100);  // Fiktiv konstruktor
+        int roomSize = 50;
+        int playerSize = 10;
+
+        Point result = gameGraphics.calculatePlayerPosition(room, roomSize, playerSize);
+
+        assertEquals(120, result.x);
+        assertEquals(138, result.y);
+    }
+
+    //positive test
+    @Test
+    void textIsLaidOutOnce() {
+        Graphics2D g = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        Font font = new Font("SansSerif", Font.PLAIN, 12);
+        GameGraphics.Text text = gameGraphics.text(g, font, GameGraphics.netsLabel);
+        assertSame(text, gameGraphics.text(g, font, GameGraphics.netsLabel));
+        assertEquals(g.getFontMetrics(font).stringWidth(GameGraphics.netsLabel), text.width);
+        assertNotSame(text, gameGraphics.text(g, font.deriveFont(14f), GameGraphics.netsLabel));
+        assertSame(GameGraphics.number(3), GameGraphics.number(3));
+        assertSame(GameGraphics.stroke(2), GameGraphics.stroke(2));
+    }
+
+    /**
+     * A view whose size, background and map can be changed.
+     */
+    private static final class StubView implements GameView {
+        int width = 650, height = 600;
+        Color background = Color.white;
+        GameMap map = GameMap.dodecahedron();
+
+        @Override
+        public TurnResult getState() {
+            return TurnResult.initial;
+        }
+        @Override
+        public GameMap getMap() {
+            return map;
+        }
+        @Override
+        public MessageLog getMessages() {
+            return new MessageLog();
+        }
+        @Override
+        public int getWidth() {
+            return width;
+        }
+        @Override
+        public int getHeight() {
+            return height;
+        }
+        @Override
+        public Color getBackground() {
+            return background;
+        }
+        @Override
+        public Font getFont() {
+            return new Font("SansSerif", Font.PLAIN, 12);
+        }
+    }
+
+    private static BufferedImage drawRooms(GameGraphics graphics, StubView view) {
+        BufferedImage image = new BufferedImage(650, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(view.background);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.drawRooms(g);
+        g.dispose();
+        return image;
+    }
+
+    //positive test
+    @Test
+    void mapLayerMatchesADirectDraw() {
+        StubView cached = new StubView();
+        StubView direct = new StubView();
+        direct.width = 0; // no size, so the map is drawn without the cache
+        BufferedImage expected = drawRooms(new GameGraphics(direct), direct);
+        GameGraphics graphics = new GameGraphics(cached);
+        drawRooms(graphics, cached);
+        BufferedImage actual = drawRooms(graphics, cached);
+        assertNotNull(graphics.getCachedMapLayer());
+        for (int y = 0; y < expected.getHeight(); y++)
+            for (int x = 0; x < expected.getWidth(); x++)
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel " + x + "," + y);
+    }
+
+    //positive test
+    @Test
+    void mapLayerIsRenderedAgainWhenTheViewChanges() {
+        StubView view = new StubView();
+        GameGraphics graphics = new GameGraphics(view);
+        drawRooms(graphics, view);
+        BufferedImage layer = graphics.getCachedMapLayer();
+        drawRooms(graphics, view);
+        assertSame(layer, graphics.getCachedMapLayer());
+
+        view.width = 640;
+        drawRooms(graphics, view);
+        assertNotSame(layer, graphics.getCachedMapLayer());
+        assertEquals(640, graphics.getCachedMapLayer().getWidth());
+
+        layer = graphics.getCachedMapLayer();
+        view.background = Color.lightGray;
+        drawRooms(graphics, view);
+        assertNotSame(layer, graphics.getCachedMapLayer());
+        assertEquals(Color.lightGray.getRGB(), graphics.getCachedMapLayer().getRGB(0, 0));
+
+        layer = graphics.getCachedMapLayer();
+        view.map = new MapGenerator().generate(30, 1);
+        drawRooms(graphics, view);
+        assertNotSame(layer, graphics.getCachedMapLayer());
+
+        layer = graphics.getCachedMapLayer();
+        graphics.invalidateMapLayer();
+        assertNull(graphics.getCachedMapLayer());
+        drawRooms(graphics, view);
+        assertNotNull(graphics.getCachedMapLayer());
+        assertNotSame(layer, graphics.getCachedMapLayer());
+    }
+
+    //negative test
+    @Test
+    void textCacheIsBounded() {
+        Graphics2D g = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        Font font = new Font("SansSerif", Font.PLAIN, 12);
+        for (int nets = 0; nets < 10_000; nets++)
+            gameGraphics.text(g, font, GameGraphics.number(nets));
+        assertTrue(gameGraphics.getCachedTextCount() <= GameGraphics.maxTextsPerFont);
+        GameGraphics.Text text = gameGraphics.text(g, font, GameGraphics.netsLabel);
+        assertSame(text, gameGraphics.text(g, font, GameGraphics.netsLabel));
+    }
+
+    //negative test
+    @Test
+    void textIsLaidOutAgainWhenTheContextChanges() {
+        Graphics2D g = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        Font font = new Font("SansSerif", Font.PLAIN, 12);
+        GameGraphics.Text text = gameGraphics.text(g, font, GameGraphics.netsLabel);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        assertNotSame(text, gameGraphics.text(g, font, GameGraphics.netsLabel));
+        assertEquals("1000", GameGraphics.number(1000));
+    }
+}
@@ -0,0 +1,146 @@
+package bysen;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLoopTest {
+    private GameEngine engine;
+    private GameLoop loop;
+    private final BlockingQueue<TurnResult> results = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        engine = new GameEngine(new Random(42));
+        loop = new GameLoop(engine, results::add);
+        loop.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        loop.stop();
+    }
+
+    private TurnResult next() throws InterruptedException {
+        TurnResult result = results.poll(5, TimeUnit.SECONDS);
+        assertNotNull(result);
+        return result;
+    }
+
+    //positive test
+    @Test
+    void newGameAsksForName() throws InterruptedException {
+        assertTrue(loop.submit(Command.newGame()));
+        TurnResult result = next();
+        assertEquals(TurnResult.Request.NAME, result.getRequest());
+        assertTrue(result.isGameOver());
+    }
+
+    //positive test
+    @Test
+    void startAndMove() throws InterruptedException {
+        TurnResult started = loop.call(Command.start("Test"));
+        assertSame(started, next());
+        assertFalse(started.isGameOver());
+        assertEquals("Test", started.getPlayerName());
+        assertEquals(3, started.getNumNets());
+
+        int room = engine.getMap().link(started.getCurrRoom(), 0);
+        assertTrue(loop.submit(Command.move(room)));
+        TurnResult moved = next();
+        assertNotNull(moved.getOutcome());
+        assertNotEquals(Outcome.INVALID, moved.getOutcome());
+    }
+
+    //negative test
+    @Test
+    void moveBeforeStartIsInvalid() throws InterruptedException {
+        assertEquals(Outcome.INVALID, loop.call(Command.move(0)).getOutcome());
+    }
+
+    //negative test
+    @Test
+    void failedCommandStillPublishesTheState() throws InterruptedException {
+        TurnResult started = loop.call(Command.start("Test"));
+        next();
+        int room = engine.getMap().link(started.getCurrRoom(), 0);
+        engine.creatures.clear();
+        engine.creatures.add(room, Creatures.Tomte);
+        engine.setQuizBank(new QuizBank() {
+            @Override
+            public int size() {
+                return 1;
+            }
+
+            @Override
+            public Question question(int index) {
+                throw new IllegalStateException("Broken quiz bank");
+            }
+        });
+        assertTrue(loop.submit(Command.move(room)));
+        TurnResult result = next();
+        assertEquals(room, result.getCurrRoom());
+        assertNull(result.getOutcome());
+        assertThrows(IllegalStateException.class, () -> loop.call(Command.answer(0)));
+        next();
+    }
+
+    //negative test
+    @Test
+    void failingRecorderIsDropped(@TempDir Path dir) throws IOException, InterruptedException {
+        GameEngine engine = new GameEngine(new Random(1));
+        AtomicInteger records = new AtomicInteger();
+        ReplayRecorder recorder = new ReplayRecorder(dir.resolve("session.bysr"), 1, engine.getMap().getRoomCount()) {
+            @Override
+            public void record(Command command, Outcome outcome) {
+                records.incrementAndGet();
+                throw new UncheckedIOException(new IOException("Disk full"));
+            }
+        };
+        GameLoop recorded = new GameLoop(engine, result -> { });
+        recorded.setRecorder(recorder);
+        recorded.start();
+        try {
+            assertEquals("Test", recorded.call(Command.start("Test")).getPlayerName());
+            assertNotNull(recorded.call(Command.move(engine.getMap().link(engine.getCurrRoom(), 0))).getOutcome());
+            assertEquals(1, records.get());
+        } finally {
+            recorded.stop();
+            recorder.close();
+        }
+    }
+
+    //negative test
+    @Test
+    void stopFailsWaitingCalls() throws InterruptedException {
+        GameLoop idle = new GameLoop(new GameEngine(new Random(1)), result -> { });
+        FutureTask<TurnResult> call = new FutureTask<>(() -> idle.call(Command.start("Test")));
+        new Thread(call).start();
+        Thread.sleep(100);
+        idle.stop();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertThrows(IllegalStateException.class, () -> idle.call(Command.newGame()));
+    }
+
+    //negative test
+    @Test
+    void nullCommand() {
+        assertThrows(NullPointerException.class, () -> loop.submit(null));
+        assertThrows(NullPointerException.class, () -> loop.call(null));
+    }
+}
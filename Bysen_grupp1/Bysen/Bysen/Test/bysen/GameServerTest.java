@@ -0,0 +1,91 @@
+package bysen;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+    private GameServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new GameServer(GameMap.dodecahedron(), 500, 1000, 42);
+        server.start(0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    private Socket connect() throws IOException {
+        return new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    //positive test
+    @Test
+    void startAndMove() throws IOException {
+        try (Socket socket = connect()) {
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = reader(socket);
+            out.println("NEW Test");
+            String[] started = in.readLine().split(" ");
+            assertEquals("STARTED", started[0]);
+            assertEquals("3", started[2]);
+            int room = GameMap.dodecahedron().link(Integer.parseInt(started[1]), 0);
+            out.println("MOVE " + room);
+            String[] moved = in.readLine().split(" ");
+            assertNotEquals(Outcome.INVALID, Outcome.valueOf(moved[0]));
+            out.println("QUIT");
+            assertEquals("BYE", in.readLine());
+        }
+    }
+
+    //positive test
+    @Test
+    void loadGenerator() throws InterruptedException {
+        LoadGenerator.Report report = new LoadGenerator(server.getPort(), 50, 40, 7).run();
+        assertEquals(0, report.getErrors());
+        assertEquals(50 * 40, report.getTurns());
+        assertTrue(report.getLatencyPercentile(99) >= report.getLatencyPercentile(50));
+    }
+
+    //negative test
+    @Test
+    void badRequests() throws IOException {
+        try (Socket socket = connect()) {
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = reader(socket);
+            out.println("JUMP 3");
+            assertTrue(in.readLine().startsWith("ERROR"));
+            out.println("MOVE x");
+            assertTrue(in.readLine().startsWith("ERROR"));
+            out.println("MOVE 99");
+            assertTrue(in.readLine().startsWith("INVALID"));
+        }
+    }
+
+    //negative test
+    @Test
+    void idleSessionIsEvicted() throws IOException {
+        try (Socket socket = connect()) {
+            BufferedReader in = reader(socket);
+            assertEquals("BYE idle", in.readLine());
+            assertNull(in.readLine());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package bysen;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSnapshotTest {
+    private GameEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new GameEngine(new SplittableRandom(42));
+        engine.startNewGame("Test");
+    }
+
+    private static void assertSameState(GameEngine expected, GameEngine actual) {
+        assertEquals(expected.isGameOver(), actual.isGameOver());
+        assertEquals(expected.getCurrRoom(), actual.getCurrRoom());
+        assertEquals(expected.getNumNets(), actual.getNumNets());
+        assertEquals(expected.getCreatureRoom(), actual.getCreatureRoom());
+        assertEquals(expected.getPlayerName(), actual.getPlayerName());
+        assertEquals(expected.getTurns(), actual.getTurns());
+        assertEquals(expected.getNetsThrown(), actual.getNetsThrown());
+        for (int room = 0; room < expected.getMap().getRoomCount(); room++) {
+            assertEquals(expected.creatures.roomMask(room), actual.creatures.roomMask(room));
+            assertEquals(expected.warnings.warnings(room), actual.warnings.warnings(room));
+        }
+    }
+
+    //positive test
+    @Test
+    void saveAndLoad() {
+        engine.throwNet(engine.getMap().link(engine.getCurrRoom(), 0));
+        ByteBuffer buffer = GameSnapshot.allocate(engine.getMap().getRoomCount(), 1);
+        GameSnapshot.save(engine, buffer, 0);
+        GameEngine copy = new GameEngine(new SplittableRandom(1));
+        GameSnapshot.load(copy, buffer, 0);
+        assertSameState(engine, copy);
+    }
+
+    //positive test
+    @Test
+    void forkRestoresState() {
+        ByteBuffer buffer = GameSnapshot.allocate(engine.getMap().getRoomCount(), 1);
+        GameSnapshot.save(engine, buffer, 0);
+        GameEngine before = new GameEngine(new SplittableRandom(1));
+        GameSnapshot.load(before, buffer, 0);
+        for (int i = 0; i < 3; i++) {
+            engine.move(engine.getMap().link(engine.getCurrRoom(), 0));
+            GameSnapshot.load(engine, buffer, 0);
+            assertSameState(before, engine);
+        }
+    }
+
+    //positive test
+    @Test
+    void largeMap() {
+        GameEngine large = new GameEngine(new MapGenerator().generate(1000, 3), new SplittableRandom(5));
+        large.startNewGame("Åsa");
+        ByteBuffer buffer = GameSnapshot.allocate(1000, 2);
+        GameSnapshot.save(large, buffer, GameSnapshot.size(1000));
+        GameEngine copy = new GameEngine(large.getMap(), new SplittableRandom(6));
+        GameSnapshot.load(copy, buffer, GameSnapshot.size(1000));
+        assertSameState(large, copy);
+    }
+
+    //positive test
+    @Test
+    void checkpoint(@TempDir Path dir) throws IOException {
+        GameEngine[] engines = new GameEngine[100];
+        GameEngine[] copies = new GameEngine[engines.length];
+        for (int i = 0; i < engines.length; i++) {
+            engines[i] = new GameEngine(new SplittableRandom(i));
+            engines[i].startNewGame("Spelare " + i);
+            copies[i] = new GameEngine(new SplittableRandom(i + 1000));
+        }
+        Path file = dir.resolve("checkpoint.bin");
+        GameSnapshot.writeCheckpoint(file, engines);
+        GameSnapshot.readCheckpoint(file, copies);
+        for (int i = 0; i < engines.length; i++)
+            assertSameState(engines[i], copies[i]);
+    }
+
+    //positive test
+    @Test
+    void longNameIsShortened() {
+        engine.startNewGame("Å".repeat(40)); // 80 bytes in UTF-8
+        ByteBuffer buffer = GameSnapshot.allocate(engine.getMap().getRoomCount(), 1);
+        GameSnapshot.save(engine, buffer, 0);
+        GameEngine copy = new GameEngine(new SplittableRandom(1));
+        GameSnapshot.load(copy, buffer, 0);
+        assertEquals("Å".repeat(31), copy.getPlayerName());
+        assertEquals("Å".repeat(40), engine.getPlayerName());
+    }
+
+    //negative test
+    @Test
+    void invalidSnapshotLeavesEngineAsItWas() {
+        ByteBuffer buffer = GameSnapshot.allocate(engine.getMap().getRoomCount(), 1);
+        GameSnapshot.save(engine, buffer, 0);
+        GameEngine other = new GameEngine(new SplittableRandom(9));
+        other.startNewGame("Annan");
+        GameEngine expected = new GameEngine(new SplittableRandom(1));
+        ByteBuffer saved = GameSnapshot.allocate(engine.getMap().getRoomCount(), 1);
+        GameSnapshot.save(other, saved, 0);
+        GameSnapshot.load(expected, saved, 0);
+
+        buffer.putInt(16, 20); // current room
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.load(other, buffer, 0));
+        assertSameState(expected, other);
+        buffer.putInt(16, 0);
+        buffer.putShort(32, (short) 100); // name length
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.load(other, buffer, 0));
+        assertSameState(expected, other);
+        buffer.putShort(32, (short) 4);
+        buffer.putInt(28, 1_000_000); // quiz question
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.load(other, buffer, 0));
+        assertSameState(expected, other);
+    }
+
+    //negative test
+    @Test
+    void wrongRoomCount() {
+        ByteBuffer buffer = GameSnapshot.allocate(engine.getMap().getRoomCount(), 1);
+        GameSnapshot.save(engine, buffer, 0);
+        GameEngine other = new GameEngine(new MapGenerator().generate(30, 1), new SplittableRandom(1));
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.load(other, buffer, 0));
+    }
+
+    //negative test
+    @Test
+    void notASnapshot() {
+        ByteBuffer buffer = GameSnapshot.allocate(engine.getMap().getRoomCount(), 1);
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.load(engine, buffer, 0));
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.save(engine, ByteBuffer.allocate(1000), 0));
+    }
+
+    //negative test
+    @Test
+    void wanderingEngineIsRejected() {
+        ByteBuffer buffer = GameSnapshot.allocate(engine.getMap().getRoomCount(), 1);
+        GameSnapshot.save(engine, buffer, 0);
+        GameEngine wandering = new GameEngine(new SplittableRandom(2));
+        wandering.setWandering(true);
+        wandering.startNewGame("Test");
+        int currRoom = wandering.getCurrRoom();
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.save(wandering, buffer, 0));
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.load(wandering, buffer, 0));
+        assertEquals(currRoom, wandering.getCurrRoom());
+    }
+}
@@ -1,9 +1,8 @@
+package bysen;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameTest {
@@ -12,8 +11,8 @@ class GameTest {
     @BeforeEach
     void setUp() {
         game = new Game();
-        List<String> messages = new ArrayList<>();
-        messages.add("Test message");
+        MessageLog messages = new MessageLog();
+        messages.add(Message.TROLL_WARNING);
         game.setMessages(messages);
     }
 
@@ -27,17 +26,17 @@ class GameTest {
     //negative test
     @Test
     void testGetMessagesWhenEmpty() {
-        game.setMessages(List.of());
-        assertNull(game.getMessages());
+        game.setMessages(new MessageLog());
+        assertTrue(game.getMessages().isEmpty());
     }
 
     //positive test
     @Test
     void setMessages() {
-        List<String> messages = new ArrayList<>();
-        messages.add("Test message 2");
+        MessageLog messages = new MessageLog();
+        messages.add(Message.VITTRA_WARNING);
         game.setMessages(messages);
-        assertEquals(messages, game.getMessages());
+        assertSame(messages, game.getMessages());
     }
 
     //negative test
@@ -51,7 +50,7 @@ class GameTest {
     @Test
     public void startNewGame() {
         game.startNewGame();
-        assertFalse(game.gameOver);
+        assertFalse(game.getEngine().isGameOver());
         assertNotNull(game.getPlayerName());
     }
 
@@ -60,4 +59,4 @@ class GameTest {
     void testStartNewGameWhenGameIsNotOver() {
         assertDoesNotThrow(() -> game.startNewGame());
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,156 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    //positive test
+    @Test
+    void topListIsSortedByWinsThenTurns() {
+        Leaderboard leaderboard = new Leaderboard(2);
+        leaderboard.record("Anna", Outcome.CAUGHT_BYSEN, 1, 12);
+        leaderboard.record("Bertil", Outcome.CAUGHT_BYSEN, 2, 8);
+        leaderboard.record("Cecilia", Outcome.GOT_SICK, 0, 3);
+        assertEquals(List.of("Bertil", "Anna"), names(leaderboard.getTop()));
+
+        leaderboard.record("Cecilia", Outcome.CAUGHT_BYSEN, 1, 5);
+        assertEquals(List.of("Cecilia", "Bertil"), names(leaderboard.getTop()));
+        leaderboard.record("Anna", Outcome.CAUGHT_BYSEN, 1, 20);
+        assertEquals(List.of("Anna", "Cecilia"), names(leaderboard.getTop()));
+
+        PlayerStats cecilia = leaderboard.getPlayer("Cecilia");
+        assertEquals(2, cecilia.getGames());
+        assertEquals(1, cecilia.getWins());
+        assertEquals(5, cecilia.getBestTurns());
+        assertEquals(8, cecilia.getTurns());
+        assertNull(leaderboard.getPlayer("David"));
+    }
+
+    private static List<String> names(List<PlayerStats> players) {
+        return players.stream().map(PlayerStats::getName).toList();
+    }
+
+    //positive test
+    @Test
+    void resultsSurviveReopening(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("leaderboard.bin");
+        Random rand = new Random(1);
+        Leaderboard expected = new Leaderboard(5);
+        try (Leaderboard leaderboard = Leaderboard.open(file, 5, 16)) {
+            for (int i = 0; i < 1000; i++) {
+                String name = "Spelare " + rand.nextInt(50);
+                Outcome outcome = rand.nextBoolean() ? Outcome.CAUGHT_BYSEN : Outcome.OUT_OF_NETS;
+                int turns = 1 + rand.nextInt(40);
+                leaderboard.record(name, outcome, 2, turns);
+                expected.record(name, outcome, 2, turns);
+            }
+        }
+        try (Leaderboard leaderboard = Leaderboard.open(file, 5, 16)) {
+            assertEquals(1000, leaderboard.getResultCount());
+            assertEquals(50, leaderboard.getPlayerCount());
+            assertEquals(names(expected.getTop()), names(leaderboard.getTop()));
+            assertEquals(expected.getPlayer("Spelare 7").getTurns(), leaderboard.getPlayer("Spelare 7").getTurns());
+        }
+    }
+
+    //negative test
+    @Test
+    void damagedTailIsCutOff(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("leaderboard.bin");
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            leaderboard.record("Anna", Outcome.CAUGHT_BYSEN, 1, 12);
+            leaderboard.record("Anna", Outcome.CAUGHT_BYSEN, 1, 4);
+        }
+        long intact = Files.size(file);
+        // A crash in the middle of the last record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(intact - 5);
+        }
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertEquals(1, leaderboard.getResultCount());
+            assertEquals(12, leaderboard.getPlayer("Anna").getBestTurns());
+            leaderboard.record("Anna", Outcome.LOST_TO_BYSEN, 0, 2);
+        }
+        // Garbage after the last record
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9}, StandardOpenOption.APPEND);
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertEquals(2, leaderboard.getResultCount());
+            assertEquals(2, leaderboard.getPlayer("Anna").getGames());
+        }
+        assertEquals(intact, Files.size(file));
+    }
+
+    //positive test
+    @Test
+    void longNamesAreShortened(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("leaderboard.bin");
+        String name = "å".repeat(200); // 400 bytes in UTF-8
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            leaderboard.record(name, Outcome.CAUGHT_BYSEN, 1, 6);
+            assertEquals(1, leaderboard.getPlayer(name).getWins());
+        }
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertEquals("å".repeat(127), leaderboard.getTop().get(0).getName());
+            assertEquals(6, leaderboard.getPlayer(name).getBestTurns());
+        }
+        assertEquals("Anna", Leaderboard.boardName("Anna"));
+    }
+
+    //positive test
+    @Test
+    void recordingOnlyBuffers(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("leaderboard.bin");
+        try (Leaderboard leaderboard = Leaderboard.open(file, 10, 1)) {
+            synchronized (leaderboard) {
+                // The sync thread cannot write while the leaderboard is locked
+                leaderboard.record("Anna", Outcome.CAUGHT_BYSEN, 1, 6);
+                leaderboard.record("Anna", Outcome.GOT_SICK, 0, 3);
+                assertEquals(LeaderboardLog.headerSize, Files.size(file));
+            }
+            leaderboard.sync();
+            assertTrue(Files.size(file) > LeaderboardLog.headerSize);
+        }
+        try (Leaderboard leaderboard = Leaderboard.open(file)) {
+            assertEquals(2, leaderboard.getResultCount());
+        }
+    }
+
+    //positive test
+    @Test
+    void engineCountsTurnsAndNets() {
+        GameEngine engine = new GameEngine(new Random(3));
+        engine.startNewGame("Test");
+        engine.creatures.clear();
+        int room = engine.map.link(engine.currRoom, 0);
+        engine.move(room);
+        engine.throwNet(engine.map.link(engine.currRoom, 1));
+        assertEquals(2, engine.getTurns());
+        assertEquals(1, engine.getNetsThrown());
+        engine.startNewGame("Test");
+        assertEquals(0, engine.getTurns());
+    }
+
+    //negative test
+    @Test
+    void invalidResults(@TempDir Path directory) throws IOException {
+        Leaderboard leaderboard = new Leaderboard(3);
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.record("Anna", Outcome.EXPLORED, 0, 1));
+        assertThrows(NullPointerException.class, () -> leaderboard.record(null, Outcome.GOT_SICK, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.record("Anna", Outcome.GOT_SICK, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Leaderboard(0));
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IllegalArgumentException.class, () -> Leaderboard.open(file));
+    }
+}
@@ -0,0 +1,67 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapGeneratorTest {
+
+    private static int reachableRooms(GameMap map) {
+        boolean[] seen = new boolean[map.getRoomCount()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        seen[0] = true;
+        int count = 0;
+        while (!queue.isEmpty()) {
+            int room = queue.poll();
+            count++;
+            for (int i = 0; i < map.degree(room); i++) {
+                int link = map.link(room, i);
+                if (!seen[link]) {
+                    seen[link] = true;
+                    queue.add(link);
+                }
+            }
+        }
+        return count;
+    }
+
+    //positive test
+    @Test
+    void generatedMapIsConnectedAndSymmetric() {
+        GameMap map = new MapGenerator().generate(10_000, 1);
+        assertEquals(10_000, map.getRoomCount());
+        assertEquals(10_000, reachableRooms(map));
+        for (int room = 0; room < map.getRoomCount(); room++)
+            for (int i = 0; i < map.degree(room); i++)
+                assertTrue(map.isLinked(map.link(room, i), room));
+    }
+
+    //positive test
+    @Test
+    void gamesRunOnGeneratedMap() {
+        GameEngine engine = new GameEngine(new MapGenerator().generate(5_000, 2), new java.util.Random(3));
+        engine.startNewGame("Test");
+        assertTrue(engine.hasCreature(engine.getCreatureRoom(), Creatures.Bysen));
+        int room = engine.map.link(engine.getCurrRoom(), 0);
+        assertNotEquals(Outcome.INVALID, engine.move(room));
+    }
+
+    //negative test
+    @Test
+    void tooFewRooms() {
+        assertThrows(IllegalArgumentException.class, () -> new MapGenerator().generate(1, 1));
+    }
+
+    //negative test
+    @Test
+    void invalidLinks() {
+        int[] xs = new int[3], ys = new int[3];
+        assertThrows(IllegalArgumentException.class, () -> GameMap.fromLinks(xs, ys, new int[][]{{1}, {0, 2}, {}}));
+        assertThrows(IllegalArgumentException.class, () -> GameMap.fromLinks(xs, ys, new int[][]{{1, 2}, {0}, {1}}));
+        assertThrows(IllegalArgumentException.class, () -> GameMap.fromLinks(xs, ys, new int[][]{{1}, {0, 3}, {1}}));
+        assertThrows(IllegalArgumentException.class, () -> GameMap.fromLinks(xs, ys, new int[][]{{0, 1}, {0, 2}, {1}}));
+    }
+}
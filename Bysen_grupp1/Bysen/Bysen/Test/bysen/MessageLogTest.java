@@ -0,0 +1,34 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageLogTest {
+
+    //positive test
+    @Test
+    void keepsOrderAndDropsDuplicates() {
+        MessageLog log = new MessageLog();
+        log.add(Message.TROLL_WARNING);
+        log.add(Message.BYSEN_WARNING);
+        log.add(Message.TROLL_WARNING);
+        assertEquals(2, log.size());
+        assertEquals(Message.TROLL_WARNING, log.get(0));
+        assertEquals(Message.BYSEN_WARNING, log.get(1));
+    }
+
+    //positive test
+    @Test
+    void warningMatchesCreature() {
+        for (Creatures creature : Creatures.values())
+            assertEquals(creature.warning, Message.warning(creature).getText());
+    }
+
+    //negative test
+    @Test
+    void readPastEnd() {
+        MessageLog log = new MessageLog();
+        assertThrows(IndexOutOfBoundsException.class, () -> log.get(0));
+    }
+}
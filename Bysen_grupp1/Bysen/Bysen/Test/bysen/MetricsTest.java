@@ -0,0 +1,73 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    //positive test
+    @Test
+    void percentilesAreWithinOneBucket() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 100_000; i++)
+            histogram.record(i * 10);
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        long p50 = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p50 <= 500_000 && p50 > 500_000 * 7 / 8, "p50 " + p50);
+        assertTrue(p99 <= 990_000 && p99 > 990_000 * 7 / 8, "p99 " + p99);
+    }
+
+    //positive test
+    @Test
+    void bucketsCoverAllValues() {
+        for (long value : new long[]{0, 1, 7, 8, 9, 15, 16, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucket(value);
+            assertTrue(Histogram.lowerBound(bucket) <= value);
+            if (bucket + 1 < Histogram.bucketCount)
+                assertTrue(Histogram.lowerBound(bucket + 1) > value);
+        }
+    }
+
+    //positive test
+    @Test
+    void concurrentRecording() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++)
+            executor.execute(() -> {
+                for (int i = 0; i < 100_000; i++)
+                    histogram.record(i);
+            });
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(99_999, histogram.getMax());
+    }
+
+    //positive test
+    @Test
+    void dumpListsTimers() {
+        Metrics.Timer.TURN.histogram.record(1000);
+        assertTrue(Metrics.instance.dump().contains("TURN"));
+        assertTrue(Metrics.instance.getCounts().get("TURN") >= 1);
+        Metrics.instance.reset();
+        assertEquals(0, Metrics.instance.getCounts().get("TURN"));
+    }
+
+    //negative test
+    @Test
+    void invalidPercentile() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getPercentile(99));
+        histogram.record(-5);
+        assertEquals(0, histogram.getMax());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+    }
+}
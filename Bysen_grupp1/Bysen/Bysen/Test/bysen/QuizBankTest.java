@@ -0,0 +1,118 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizBankTest {
+
+    private static List<Question> questions(int count) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            questions.add(new Question("Fråga " + i + "?", new String[]{"Ja", "Nej", "Kanske " + i}, i % 3));
+        return questions;
+    }
+
+    /**
+     * Lets the engine meet a Tomte and answers the question, returning its index.
+     */
+    private static int meetTomte(GameEngine engine) {
+        engine.creatures.clear();
+        int room = engine.map.link(engine.currRoom, 0);
+        engine.creatures.add(room, Creatures.Tomte);
+        assertEquals(Outcome.QUIZ, engine.move(room));
+        int index = engine.questionIndex;
+        engine.answerQuiz(0);
+        return index;
+    }
+
+    //positive test
+    @Test
+    void writeAndReadBack(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("quiz.bin");
+        List<Question> questions = questions(10_000);
+        QuizFile.write(file, questions);
+        QuizFile bank = QuizFile.open(file, 16);
+        assertEquals(10_000, bank.size());
+        assertEquals(0, bank.getCachedCount());
+        for (int i : new int[]{0, 9_999, 4_711}) {
+            Question question = bank.question(i);
+            assertEquals(questions.get(i).getText(), question.getText());
+            assertArrayEquals(questions.get(i).getOptions(), question.getOptions());
+            assertEquals(i % 3, question.getCorrectAnswer());
+        }
+        assertEquals(3, bank.getCacheMisses());
+        assertSame(bank.question(4_711), bank.question(4_711));
+        assertEquals(2, bank.getCacheHits());
+    }
+
+    //positive test
+    @Test
+    void cacheKeepsTheMostRecentQuestions(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("quiz.bin");
+        QuizFile.write(file, questions(100));
+        QuizFile bank = QuizFile.open(file, 4);
+        for (int i = 0; i < 100; i++)
+            bank.question(i);
+        assertEquals(4, bank.getCachedCount());
+        bank.question(99);
+        assertEquals(1, bank.getCacheHits());
+        bank.question(0);
+        assertEquals(101, bank.getCacheMisses());
+    }
+
+    //positive test
+    @Test
+    void questionsAreNotRepeatedInASession() {
+        GameEngine engine = new GameEngine(new Random(7));
+        engine.setQuizBank(QuizBank.of(questions(50).toArray(new Question[0])));
+        engine.startNewGame("Test");
+        Set<Integer> asked = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            assertTrue(asked.add(meetTomte(engine)));
+            if (engine.isGameOver())
+                engine.startNewGame("Test");
+        }
+        // All have been asked, so the next one starts over
+        assertTrue(asked.contains(meetTomte(engine)));
+    }
+
+    //positive test
+    @Test
+    void checksumDoesNotDependOnStorage(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("quiz.bin");
+        QuizFile.write(file, questions(20));
+        QuizFile bank = QuizFile.open(file);
+        assertEquals(QuizBank.of(questions(20).toArray(new Question[0])).checksum(), bank.checksum());
+        assertNotEquals(QuizBank.of(questions(19).toArray(new Question[0])).checksum(), bank.checksum());
+        assertEquals(0, bank.getCachedCount());
+    }
+
+    //negative test
+    @Test
+    void invalidBanks(@TempDir Path directory) throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> QuizFile.read(ByteBuffer.allocate(64), 4));
+        assertThrows(IllegalArgumentException.class, () -> QuizFile.write(directory.resolve("empty.bin"), List.of()));
+        Path file = directory.resolve("quiz.bin");
+        QuizFile.write(file, questions(10));
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, 30).slice();
+        assertThrows(IllegalArgumentException.class, () -> QuizFile.read(truncated, 4));
+        QuizFile bank = QuizFile.open(file);
+        assertThrows(IndexOutOfBoundsException.class, () -> bank.question(10));
+        assertThrows(IllegalArgumentException.class, () -> new Question("?", new String[]{"Ja"}, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Question("?", new String[]{"Ja", "Nej"}, 2));
+        assertThrows(NullPointerException.class, () -> new GameEngine().setQuizBank(null));
+    }
+}
@@ -0,0 +1,111 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * Plays random games through a game loop's execute method and records them.
+     */
+    private Path record(long seed, int turns) throws IOException {
+        return record(seed, turns, QuizBank.builtIn, false);
+    }
+
+    private Path record(long seed, int turns, QuizBank quizBank, boolean wandering) throws IOException {
+        Path file = dir.resolve("session.bysr");
+        GameEngine engine = new GameEngine(new SplittableRandom(seed));
+        engine.setQuizBank(quizBank);
+        engine.setWandering(wandering);
+        GameLoop loop = new GameLoop(engine, result -> { });
+        SplittableRandom player = new SplittableRandom(7);
+        try (ReplayRecorder recorder = new ReplayRecorder(file, seed, engine.getMap().getRoomCount(), quizBank,
+                wandering ? ReplayLog.WANDERING : 0)) {
+            loop.setRecorder(recorder);
+            for (int i = 0; i < turns; i++) {
+                TurnResult result;
+                if (engine.isGameOver()) {
+                    result = loop.execute(Command.start("Test"));
+                } else if (engine.isQuizPending()) {
+                    result = loop.execute(Command.answer(player.nextInt(engine.getQuizOptionCount())));
+                } else {
+                    int room = engine.getMap().link(engine.getCurrRoom(), player.nextInt(3));
+                    result = loop.execute(player.nextInt(3) == 0 ? Command.throwNet(room) : Command.move(room));
+                }
+                assertNotNull(result);
+            }
+            assertEquals(turns, recorder.size());
+        }
+        return file;
+    }
+
+    //positive test
+    @Test
+    void replayMatchesRecording() throws IOException {
+        // More records than one mapped chunk holds
+        int turns = ReplayRecorder.chunkSize / ReplayLog.recordSize + 1000;
+        ReplayLog log = ReplayLog.open(record(42, turns));
+        assertEquals(42, log.getSeed());
+        assertEquals(turns, log.size());
+        assertEquals(-1, Replayer.replay(log, GameMap.dodecahedron()));
+    }
+
+    //positive test
+    @Test
+    void replayNeedsTheRecordedQuizBank() throws IOException {
+        Question[] questions = new Question[50];
+        for (int i = 0; i < questions.length; i++)
+            questions[i] = new Question("Fråga " + i, new String[]{"Ja", "Nej"}, i % 2);
+        Path quizFile = dir.resolve("quiz.bin");
+        QuizFile.write(quizFile, List.of(questions));
+        ReplayLog log = ReplayLog.open(record(43, 5000, QuizFile.open(quizFile), false));
+        // The same questions in memory are the same bank
+        assertEquals(-1, Replayer.replay(log, GameMap.dodecahedron(), QuizBank.of(questions)));
+        assertThrows(IllegalArgumentException.class, () -> Replayer.replay(log, GameMap.dodecahedron()));
+    }
+
+    //positive test
+    @Test
+    void replayLetsCreaturesWander() throws IOException {
+        ReplayLog log = ReplayLog.open(record(44, 5000, QuizBank.builtIn, true));
+        assertTrue(log.isWandering());
+        assertEquals(-1, Replayer.replay(log, GameMap.dodecahedron()));
+        assertFalse(ReplayLog.open(record(44, 10, QuizBank.builtIn, false)).isWandering());
+    }
+
+    //positive test
+    @Test
+    void encodeDecode() {
+        int record = ReplayLog.encode(ReplayLog.ANSWER, Outcome.QUIZ_WRONG, -1);
+        assertEquals(ReplayLog.ANSWER, ReplayLog.type(record));
+        assertEquals(Outcome.QUIZ_WRONG, ReplayLog.outcome(record));
+        assertEquals(-1, ReplayLog.value(record));
+    }
+
+    //negative test
+    @Test
+    void wrongSeedIsDetected() throws IOException {
+        Path file = record(42, 200);
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(8, 43);
+        assertNotEquals(-1, Replayer.replay(ReplayLog.read(buffer), GameMap.dodecahedron()));
+    }
+
+    //negative test
+    @Test
+    void notALog() {
+        assertThrows(IllegalArgumentException.class, () -> ReplayLog.read(ByteBuffer.allocate(32)));
+    }
+}
@@ -0,0 +1,107 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomDistancesTest {
+
+    //positive test
+    @Test
+    void dodecahedronDistances() {
+        GameMap map = GameMap.dodecahedron();
+        RoomDistances distances = map.getDistances();
+        assertTrue(distances.isExact());
+        assertSame(distances, map.getDistances());
+        // Seen from any room: 1 room at 0, 3 at 1, 6 at 2, 6 at 3, 3 at 4 and 1 at 5
+        int[] expected = {1, 3, 6, 6, 3, 1};
+        for (int from = 0; from < map.getRoomCount(); from++) {
+            int[] counts = new int[6];
+            for (int to = 0; to < map.getRoomCount(); to++) {
+                int d = distances.distance(from, to);
+                counts[d]++;
+                assertEquals(d, distances.distance(to, from));
+                if (d > 0) {
+                    int hop = distances.nextHop(from, to);
+                    assertTrue(map.isLinked(from, hop));
+                    assertEquals(d - 1, distances.distance(hop, to));
+                }
+            }
+            assertArrayEquals(expected, counts);
+        }
+        assertEquals(-1, distances.nextHop(3, 3));
+    }
+
+    //positive test
+    @Test
+    void landmarksNeverOverestimate() {
+        GameMap map = new MapGenerator().generate(400, 3);
+        RoomDistances exact = DistanceTable.build(map);
+        LandmarkDistances landmarks = new LandmarkDistances(map, 8);
+        assertFalse(landmarks.isExact());
+        Random rand = new Random(1);
+        int exactHits = 0;
+        for (int i = 0; i < 2000; i++) {
+            int from = rand.nextInt(400), to = rand.nextInt(400);
+            int d = exact.distance(from, to);
+            int estimate = landmarks.distance(from, to);
+            assertTrue(estimate <= d, "estimate " + estimate + " > " + d);
+            if (d <= 1)
+                assertEquals(d, estimate);
+            if (estimate == d)
+                exactHits++;
+        }
+        assertTrue(exactHits > 1000, "only " + exactHits + " exact");
+    }
+
+    //positive test
+    @Test
+    void largeMapsUseLandmarks() {
+        GameMap map = new MapGenerator().generate(DistanceTable.maxRooms + 1, 4);
+        assertNull(DistanceTable.build(map));
+        assertFalse(map.getDistances().isExact());
+        int from = 0, to = map.getRoomCount() - 1;
+        // Following the next hops gets there
+        int room = from, steps = 0;
+        while (room != to && steps++ < 10 * map.getRoomCount())
+            room = map.getDistances().nextHop(room, to);
+        assertEquals(to, room);
+    }
+
+    //positive test
+    @Test
+    void creaturesKeepTheirDistance() {
+        GameMap map = new MapGenerator().generate(200, 5);
+        GameEngine engine = new GameEngine(map, new Random(6));
+        engine.setMinCreatureDistance(4);
+        RoomDistances distances = map.getDistances();
+        for (int game = 0; game < 50; game++) {
+            engine.startNewGame("Test");
+            for (int room = 0; room < map.getRoomCount(); room++)
+                if (!engine.creatures.isEmpty(room))
+                    assertTrue(distances.distance(engine.getCurrRoom(), room) >= 4);
+        }
+        CreatureBoard board = new CreatureBoard(map.getRoomCount());
+        RoomSampler sampler = new RoomSampler(map, board, new Random(7));
+        for (int i = 0; i < 1000; i++)
+            assertTrue(distances.distance(17, sampler.sample(Creatures.Troll, 17, 6)) >= 6);
+    }
+
+    //negative test
+    @Test
+    void invalidDistances() {
+        assertThrows(IllegalArgumentException.class, () -> new GameEngine().setMinCreatureDistance(-1));
+        GameMap map = GameMap.dodecahedron();
+        RoomSampler sampler = new RoomSampler(map, new CreatureBoard(map.getRoomCount()), new Random(1));
+        assertThrows(IllegalArgumentException.class, () -> sampler.sample(Creatures.Troll, 0, -1));
+        // Nothing on the dodecahedron is 6 links away
+        assertEquals(-1, sampler.sample(Creatures.Troll, 0, 6));
+        assertThrows(IllegalArgumentException.class, () -> new LandmarkDistances(map, 0));
+        GameMap apart = GameMap.fromLinks(new int[4], new int[4], new int[][]{{1}, {0}, {3}, {2}});
+        assertEquals(RoomDistances.unreachable, apart.getDistances().distance(0, 2));
+        assertEquals(-1, apart.getDistances().nextHop(0, 2));
+        assertEquals(RoomDistances.unreachable, new LandmarkDistances(apart, 2).distance(0, 2));
+    }
+}
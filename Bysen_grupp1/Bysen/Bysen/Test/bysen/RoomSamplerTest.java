@@ -0,0 +1,59 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomSamplerTest {
+
+    //positive test
+    @Test
+    void findsTheOnlyFreeRoomOnALargeMap() {
+        GameMap map = new MapGenerator().generate(1000, 1);
+        CreatureBoard board = new CreatureBoard(map.getRoomCount());
+        for (int room = 0; room < map.getRoomCount(); room++)
+            if (room != 777)
+                board.add(room, Creatures.Troll);
+        RoomSampler sampler = new RoomSampler(map, board, new Random(1));
+        assertEquals(777, sampler.sample(Creatures.Troll, -1, 0));
+    }
+
+    //positive test
+    @Test
+    void leavesOutTheNearRoomAndItsLinks() {
+        GameMap map = GameMap.dodecahedron();
+        CreatureBoard board = new CreatureBoard(map.getRoomCount());
+        RoomSampler sampler = new RoomSampler(map, board, new Random(2));
+        for (int i = 0; i < 1000; i++) {
+            int room = sampler.sample(Creatures.Troll, 0, 2);
+            assertNotEquals(0, room);
+            assertFalse(map.isLinked(0, room));
+        }
+    }
+
+    //negative test
+    @Test
+    void noRoomLeft() {
+        GameMap map = GameMap.dodecahedron();
+        CreatureBoard board = new CreatureBoard(map.getRoomCount());
+        for (int room = 0; room < map.getRoomCount(); room++)
+            if (room != 0)
+                board.add(room, Creatures.Vittra);
+        RoomSampler sampler = new RoomSampler(map, board, new Random(3));
+        assertEquals(-1, sampler.sample(Creatures.Vittra, 0, 1));
+    }
+
+    //negative test, edge-case
+    @Test
+    void denseDistributionStillStartsAGame() {
+        GameEngine engine = new GameEngine(new Random(4));
+        int[] distribution = new int[30];
+        for (int i = 1; i < distribution.length; i++)
+            distribution[i] = 1;
+        engine.setCreatureDistribution(distribution);
+        engine.startNewGame("Test");
+        assertEquals(16, engine.creatures.count(Creatures.Troll));
+    }
+}
@@ -0,0 +1,91 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SessionPoolTest {
+
+    /**
+     * Plays games on pooled engines, taking an engine from the pool for each game.
+     */
+    private static void playGames(SessionPool pool, MovePolicy policy, SplittableRandom rand, int games) {
+        for (int g = 0; g < games; g++) {
+            GameEngine engine = pool.acquire();
+            engine.startNewGame("Test");
+            policy.newGame(engine);
+            for (int turn = 0; turn < 1000 && !engine.isGameOver(); turn++) {
+                int action = policy.nextAction(engine, rand);
+                int room = MovePolicy.room(action);
+                Outcome outcome = MovePolicy.isThrow(action) ? engine.throwNet(room) : engine.move(room);
+                if (outcome == Outcome.QUIZ)
+                    engine.answerQuiz(policy.answerQuiz(engine, rand));
+                engine.clearMessages();
+            }
+            pool.release(engine);
+        }
+    }
+
+    //positive test
+    @Test
+    void releasedEngineIsReused() {
+        SessionPool pool = new SessionPool(GameMap.dodecahedron(), 4, 1);
+        GameEngine engine = pool.acquire();
+        engine.startNewGame("Test");
+        pool.release(engine);
+        assertTrue(engine.isGameOver());
+        assertEquals(1, pool.getIdleCount());
+        assertSame(engine, pool.acquire());
+        assertEquals(1, pool.getCreatedCount());
+        for (int room = 0; room < engine.getMap().getRoomCount(); room++)
+            assertTrue(engine.creatures.isEmpty(room));
+    }
+
+    //positive test
+    @Test
+    void steadyStateAllocatesNothing() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        SessionPool pool = new SessionPool(GameMap.dodecahedron(), 4, 1);
+        MovePolicy policy = new RandomMovePolicy();
+        SplittableRandom rand = new SplittableRandom(2);
+        long allocated = -1;
+        // Warm up until the JIT has compiled the game loop, then measure
+        for (int round = 0; round < 10 && allocated != 0; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            playGames(pool, policy, rand, 50_000);
+            allocated = threads.getThreadAllocatedBytes(thread) - before;
+        }
+        assertEquals(0, allocated);
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    //negative test
+    @Test
+    void fullPoolDropsEngines() {
+        SessionPool pool = new SessionPool(GameMap.dodecahedron(), 1, 1);
+        GameEngine first = pool.acquire();
+        GameEngine second = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    //negative test
+    @Test
+    void foreignEngine() {
+        SessionPool pool = new SessionPool(GameMap.dodecahedron(), 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> pool.release(new GameEngine(new SplittableRandom(1))));
+        assertThrows(NullPointerException.class, () -> pool.release(null));
+    }
+}
@@ -0,0 +1,42 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+
+    private Simulation simulation(int nets) {
+        return new Simulation(GameEngine.defaultCreatureDistribution, nets,
+                RandomMovePolicy::new, 1000, 7);
+    }
+
+    //positive test
+    @Test
+    void countsEveryGame() {
+        SimulationResult result = simulation(3).run(50_000);
+        assertEquals(50_000, result.getGames());
+        long ended = result.getUnfinished();
+        for (Outcome outcome : Outcome.values())
+            ended += result.getCount(outcome);
+        assertEquals(result.getGames(), ended);
+    }
+
+    //positive test
+    @Test
+    void sameSeedGivesSameResultOnAnyPool() {
+        SimulationResult single = simulation(3).run(40_000, new ForkJoinPool(1));
+        SimulationResult parallel = simulation(3).run(40_000, new ForkJoinPool(4));
+        assertEquals(single.getWins(), parallel.getWins());
+        assertEquals(single.getMeanTurns(), parallel.getMeanTurns());
+    }
+
+    //negative test
+    @Test
+    void distributionWithoutBysen() {
+        assertThrows(IllegalArgumentException.class, () -> new Simulation(new int[]{1, 2},
+                3, RandomMovePolicy::new, 1000, 7));
+    }
+}
@@ -0,0 +1,90 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupTimerTest {
+
+    //positive test
+    @Test
+    void formatAndParse() {
+        String line = StartupTimer.format(120_000_000L, 310_000_000L, 405_000_000L);
+        assertEquals("startup main=120000000 firstPaint=310000000 interactive=405000000", line);
+        assertArrayEquals(new long[]{120_000_000L, 310_000_000L, 405_000_000L}, StartupTimer.parse(line));
+    }
+
+    //positive test
+    @Test
+    void firstFrameIsCheapUntilGameIsReady() throws Exception {
+        BufferedImage image = new BufferedImage(721, 687, BufferedImage.TYPE_INT_RGB);
+        Game[] game = new Game[1];
+        int[] roomCentre = new int[2];
+        SwingUtilities.invokeAndWait(() -> {
+            // The graphics are handed over on the Event Dispatch Thread, so not before this paint
+            game[0] = new Game();
+            game[0].setSize(game[0].getPreferredSize());
+            assertFalse(game[0].isReady());
+            paint(game[0], image);
+            GameMap map = game[0].getMap();
+            roomCentre[0] = map.x(0) + GameView.roomSize / 2;
+            roomCentre[1] = map.y(0) + GameView.roomSize / 2;
+        });
+        assertEquals(Color.white.getRGB(), image.getRGB(roomCentre[0], roomCentre[1]));
+        assertTrue(StartupTimer.getFirstPaintNanos() >= 0);
+
+        boolean[] ready = new boolean[1];
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!ready[0] && System.nanoTime() < deadline)
+            SwingUtilities.invokeAndWait(() -> ready[0] = game[0].isReady());
+        assertTrue(ready[0]);
+        SwingUtilities.invokeAndWait(() -> paint(game[0], image));
+        assertNotEquals(Color.white.getRGB(), image.getRGB(roomCentre[0], roomCentre[1]));
+        assertTrue(StartupTimer.getInteractiveNanos() >= StartupTimer.getFirstPaintNanos());
+    }
+
+    private static void paint(Game game, BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        try {
+            game.paintComponent(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    //negative test
+    @Test
+    void invalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> StartupTimer.parse("startup main=1"));
+        assertThrows(IllegalArgumentException.class, () -> StartupTimer.parse("startup main=1 firstPaint=x interactive=3"));
+        assertThrows(NullPointerException.class, () -> StartupTimer.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> new GameGraphics(new Game()).prepare(null, 0, 687));
+        assertThrows(NullPointerException.class, () -> new StartupHarness(null));
+    }
+
+    //negative test
+    @Test
+    void hangingRunIsKilled() {
+        StartupHarness harness = new StartupHarness(List.of(), Hang.class.getName(), 1);
+        long start = System.nanoTime();
+        IOException e = assertThrows(IOException.class, harness::run);
+        assertTrue(e.getMessage().contains("within 1 s"), e.getMessage());
+        assertTrue(System.nanoTime() - start < 30_000_000_000L);
+    }
+
+    /**
+     * Prints a line and then hangs without closing its output.
+     */
+    static class Hang {
+        public static void main(String[] args) throws InterruptedException {
+            System.out.println("hanging");
+            Thread.sleep(Long.MAX_VALUE);
+        }
+    }
+}
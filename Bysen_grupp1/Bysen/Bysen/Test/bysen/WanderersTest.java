@@ -0,0 +1,156 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WanderersTest {
+
+    //positive test
+    @Test
+    void wheelFiresAtDeadlines() {
+        TimingWheel wheel = new TimingWheel(8, 0);
+        wheel.schedule(0, 3);
+        wheel.schedule(1, 20); // more than one turn of the wheel
+        wheel.schedule(2, 3);
+        wheel.schedule(2, 5); // rescheduled
+        wheel.schedule(3, 4);
+        wheel.cancel(3);
+        assertEquals(3, wheel.size());
+        List<String> fired = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            wheel.tick(id -> fired.add(wheel.getTick() + ":" + id));
+        assertEquals(List.of("3:0", "5:2", "20:1"), fired);
+        assertEquals(0, wheel.size());
+        assertFalse(wheel.isScheduled(1));
+    }
+
+    //positive test
+    @Test
+    void wheelSkipsIdsCancelledDuringATick() {
+        TimingWheel wheel = new TimingWheel(4, 2);
+        wheel.schedule(0, 1);
+        wheel.schedule(1, 1);
+        int[] count = new int[1];
+        wheel.tick(id -> {
+            count[0]++;
+            wheel.cancel(1 - id);
+            wheel.schedule(id, 2);
+        });
+        assertEquals(1, count[0]);
+        assertEquals(1, wheel.size());
+    }
+
+    //positive test
+    @Test
+    void boardFollowsManyCreatures() {
+        GameMap map = new MapGenerator().generate(20_000, 3);
+        WarningIndex warnings = new WarningIndex(map);
+        CreatureBoard board = new CreatureBoard(map.getRoomCount(), warnings);
+        Wanderers wanderers = new Wanderers(map, board, new SplittableRandom(4));
+        Random rand = new Random(5);
+        Creatures[] types = Creatures.values();
+        for (int i = 0; i < 100_000; i++)
+            wanderers.spawn(types[rand.nextInt(types.length)], rand.nextInt(map.getRoomCount()));
+        wanderers.setPlayerRoom(0);
+        for (int tick = 0; tick < 50; tick++)
+            wanderers.tick();
+        assertEquals(100_000, wanderers.size());
+        assertTrue(wanderers.getMoves() > 100_000);
+
+        int[] counts = new int[map.getRoomCount() * types.length];
+        for (int id = 0; id < 100_000; id++)
+            counts[wanderers.room(id) * types.length + wanderers.type(id).ordinal()]++;
+        for (int room = 0; room < map.getRoomCount(); room++) {
+            for (Creatures type : types)
+                assertEquals(counts[room * types.length + type.ordinal()] > 0, board.contains(room, type));
+            assertEquals(board.linkedMask(map, room), warnings.warnings(room));
+        }
+        assertEquals(0, board.roomMask(0));
+    }
+
+    //positive test
+    @Test
+    void warningsMatchWanderingCreatures() {
+        GameEngine engine = new GameEngine(new Random(3));
+        engine.setWandering(true);
+        Random rand = new Random(6);
+        for (int game = 0; game < 200; game++) {
+            engine.startNewGame("Test");
+            // A Tomte placed in Bysen's room clears it, then there is no Bysen to follow
+            boolean bysenPlaced = engine.hasCreature(engine.getCreatureRoom(), Creatures.Bysen);
+            while (!engine.isGameOver()) {
+                int currRoom = engine.getCurrRoom();
+                int room = engine.map.link(currRoom, rand.nextInt(engine.map.degree(currRoom)));
+                Outcome outcome = rand.nextInt(4) != 0 ? engine.move(room) : engine.throwNet(room);
+                if (outcome == Outcome.QUIZ)
+                    outcome = engine.answerQuiz(rand.nextInt(4));
+                if (outcome == Outcome.EXPLORED) {
+                    int mask = 0;
+                    for (int i = 0; i < engine.getMessages().size(); i++)
+                        for (Creatures creature : Creatures.values())
+                            if (engine.getMessages().get(i) == Message.warning(creature))
+                                mask |= 1 << creature.ordinal();
+                    assertEquals(engine.getWarnings(), mask);
+                }
+                engine.clearMessages();
+                assertEquals(engine.creatures.linkedMask(engine.map, engine.getCurrRoom()), engine.getWarnings());
+                if (bysenPlaced && !engine.isGameOver())
+                    assertTrue(engine.hasCreature(engine.getCreatureRoom(), Creatures.Bysen));
+            }
+        }
+        assertTrue(engine.getWanderers().getMoves() > 0);
+    }
+
+    //positive test
+    @Test
+    void deathsAreWarned() {
+        GameEngine engine = new GameEngine(new Random(7));
+        engine.setWandering(true);
+        Random rand = new Random(8);
+        int deaths = 0;
+        for (int game = 0; game < 2000; game++) {
+            engine.startNewGame("Test");
+            while (!engine.isGameOver()) {
+                int currRoom = engine.getCurrRoom();
+                int warned = engine.getWarnings();
+                int room = engine.map.link(currRoom, rand.nextInt(engine.map.degree(currRoom)));
+                Outcome outcome = rand.nextInt(4) != 0 ? engine.move(room) : engine.throwNet(room);
+                if (outcome == Outcome.QUIZ)
+                    outcome = engine.answerQuiz(rand.nextInt(4));
+                engine.clearMessages();
+                // A Vittra moves the player somewhere they have not heard
+                if (engine.getCurrRoom() != room)
+                    continue;
+                Creatures killer = outcome == Outcome.LOST_TO_BYSEN ? Creatures.Bysen
+                        : outcome == Outcome.FELL_INTO_TROLL_RING ? Creatures.Troll
+                        : outcome == Outcome.GOT_SICK ? Creatures.Vätte : null;
+                if (killer != null) {
+                    deaths++;
+                    assertTrue((warned & 1 << killer.ordinal()) != 0, "Unwarned " + outcome + " in game " + game);
+                }
+            }
+        }
+        assertTrue(deaths > 100);
+    }
+
+    //negative test
+    @Test
+    void invalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(6, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel().schedule(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel().schedule(-1, 1));
+        GameMap map = GameMap.dodecahedron();
+        Wanderers wanderers = new Wanderers(map, new CreatureBoard(map.getRoomCount()), new Random(1));
+        assertThrows(IllegalArgumentException.class, () -> wanderers.setPeriod(Creatures.Troll, -1));
+        assertThrows(IllegalArgumentException.class, () -> wanderers.spawn(Creatures.Troll, 20));
+        assertThrows(IllegalArgumentException.class, () -> wanderers.room(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Wanderers(map, new CreatureBoard(5), new Random(1)));
+    }
+}
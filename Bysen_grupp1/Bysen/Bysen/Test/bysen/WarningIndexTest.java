@@ -0,0 +1,59 @@
+package bysen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarningIndexTest {
+
+    private static int bruteForceWarnings(GameEngine engine, int room) {
+        return engine.creatures.linkedMask(engine.map, room);
+    }
+
+    //positive test
+    @Test
+    void matchesNeighbourCreaturesDuringGames() {
+        GameEngine engine = new GameEngine(new Random(3));
+        Random rand = new Random(5);
+        for (int game = 0; game < 200; game++) {
+            engine.startNewGame("Test");
+            while (!engine.isGameOver()) {
+                int currRoom = engine.getCurrRoom();
+                int room = engine.map.link(currRoom, rand.nextInt(engine.map.degree(currRoom)));
+                Outcome outcome = rand.nextBoolean() ? engine.move(room) : engine.throwNet(room);
+                if (outcome == Outcome.QUIZ)
+                    engine.answerQuiz(rand.nextInt(4));
+                for (int r = 0; r < engine.map.getRoomCount(); r++)
+                    assertEquals(bruteForceWarnings(engine, r), engine.warnings.warnings(r));
+            }
+        }
+    }
+
+    //positive test
+    @Test
+    void removingOneOfTwoCreaturesKeepsWarning() {
+        GameMap map = GameMap.fromLinks(new int[3], new int[3], new int[][]{{1, 2}, {0}, {0}});
+        WarningIndex index = new WarningIndex(map);
+        CreatureBoard board = new CreatureBoard(3, index);
+        board.add(1, Creatures.Troll);
+        board.add(2, Creatures.Troll);
+        board.remove(1, Creatures.Troll);
+        assertEquals(1 << Creatures.Troll.ordinal(), index.warnings(0));
+        board.clearRoom(2);
+        assertEquals(0, index.warnings(0));
+    }
+
+    //negative test, edge-case
+    @Test
+    void addingTwiceCountsOnce() {
+        GameMap map = GameMap.fromLinks(new int[2], new int[2], new int[][]{{1}, {0}});
+        WarningIndex index = new WarningIndex(map);
+        CreatureBoard board = new CreatureBoard(2, index);
+        board.add(1, Creatures.Vätte);
+        board.add(1, Creatures.Vätte);
+        board.remove(1, Creatures.Vätte);
+        assertEquals(0, index.warnings(0));
+    }
+}
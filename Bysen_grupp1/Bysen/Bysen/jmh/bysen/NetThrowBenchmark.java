@@ -0,0 +1,56 @@
+package bysen;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks net throws: a throw that catches Bysen, and a throw that misses and
+ * usually makes Bysen move to a linked room.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class NetThrowBenchmark {
+    GameEngine engine;
+    int from, bysenRoom, emptyRoom;
+
+    @Setup
+    public void setUp() {
+        engine = new GameEngine(new SplittableRandom(1));
+        engine.startNewGame("Bench");
+        GameMap map = engine.getMap();
+        from = 0;
+        bysenRoom = map.link(from, 0);
+        emptyRoom = map.link(from, 1);
+    }
+
+    private void reset() {
+        engine.creatures.clear();
+        engine.creatures.add(bysenRoom, Creatures.Bysen);
+        engine.creatureRoom = bysenRoom;
+        engine.currRoom = from;
+        engine.numNets = 3;
+        engine.gameOver = false;
+    }
+
+    @Benchmark
+    public Outcome throwNetAndCatch() {
+        reset();
+        Outcome outcome = engine.throwNet(bysenRoom);
+        engine.clearMessages();
+        return outcome;
+    }
+
+    @Benchmark
+    public Outcome throwNetAndMiss() {
+        reset();
+        Outcome outcome = engine.throwNet(emptyRoom);
+        engine.clearMessages();
+        return outcome;
+    }
+}
@@ -0,0 +1,34 @@
+package bysen;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks starting a new game, which resets the state and distributes the creatures.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class NewGameBenchmark {
+    @Param({"20", "10000", "1000000"})
+    int rooms;
+
+    GameEngine engine;
+
+    @Setup
+    public void setUp() {
+        GameMap map = rooms == 20 ? GameMap.dodecahedron() : new MapGenerator().generate(rooms, 1);
+        engine = new GameEngine(map, new SplittableRandom(1));
+    }
+
+    @Benchmark
+    public int startNewGame() {
+        engine.startNewGame("Bench");
+        return engine.creatureRoom;
+    }
+}
@@ -0,0 +1,58 @@
+package bysen;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks drawing the map and the message bar into an offscreen image.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    Game game;
+    GameGraphics gameGraphics;
+    BufferedImage image;
+    Graphics2D g;
+    final MessageLog messages = new MessageLog();
+
+    @Setup
+    public void setUp() {
+        game = new Game();
+        game.setSize(game.getPreferredSize());
+        game.startNewGame();
+        gameGraphics = new GameGraphics(game);
+        image = new BufferedImage(game.getWidth(), game.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(game.getFont());
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public void drawRooms() {
+        gameGraphics.drawRooms(g);
+    }
+
+    @Benchmark
+    public void drawMessage() {
+        messages.clear();
+        messages.add(Message.TROLL_WARNING);
+        messages.add(Message.VITTRA_WARNING);
+        messages.add(Message.TROLL_WARNING);
+        messages.add(Message.TOMTE_WARNING);
+        messages.add(Message.BYSEN_WARNING);
+        game.setMessages(messages);
+        gameGraphics.drawMessage(g);
+    }
+}
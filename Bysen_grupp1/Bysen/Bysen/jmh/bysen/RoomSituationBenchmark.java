@@ -0,0 +1,53 @@
+package bysen;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a move into a room with each kind of creature, and into an empty room.
+ * Each invocation puts the creature back and the player in the start room, so every
+ * move takes the same branch of the room situation handling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RoomSituationBenchmark {
+    @Param({"Bysen", "Troll", "Vittra", "Vätte", "Tomte", "None"})
+    String creature;
+
+    GameEngine engine;
+    Creatures placed;
+    int from, target, nearby;
+
+    @Setup
+    public void setUp() {
+        engine = new GameEngine(new SplittableRandom(1));
+        engine.startNewGame("Bench");
+        placed = creature.equals("None") ? null : Creatures.valueOf(creature);
+        GameMap map = engine.getMap();
+        from = 0;
+        target = map.link(from, 0);
+        nearby = map.link(target, 0) != from ? map.link(target, 0) : map.link(target, 1);
+    }
+
+    @Benchmark
+    public Outcome move() {
+        engine.creatures.clear();
+        if (placed != null)
+            engine.creatures.add(target, placed);
+        engine.creatures.add(nearby, Creatures.Vätte); // gives exploreRoom a warning
+        engine.currRoom = from;
+        engine.gameOver = false;
+
+        Outcome outcome = engine.move(target);
+        if (outcome == Outcome.QUIZ)
+            outcome = engine.answerQuiz(0);
+        engine.clearMessages();
+        return outcome;
+    }
+}
@@ -0,0 +1,45 @@
+package bysen;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks saving and restoring a snapshot, the cost of forking a game state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SnapshotBenchmark {
+    @Param({"20", "10000"})
+    int rooms;
+
+    GameEngine engine;
+    ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        GameMap map = rooms == 20 ? GameMap.dodecahedron() : new MapGenerator().generate(rooms, 1);
+        engine = new GameEngine(map, new SplittableRandom(1));
+        engine.startNewGame("Bench");
+        buffer = GameSnapshot.allocate(rooms, 1);
+        GameSnapshot.save(engine, buffer, 0);
+    }
+
+    @Benchmark
+    public ByteBuffer save() {
+        GameSnapshot.save(engine, buffer, 0);
+        return buffer;
+    }
+
+    @Benchmark
+    public int load() {
+        GameSnapshot.load(engine, buffer, 0);
+        return engine.currRoom;
+    }
+}
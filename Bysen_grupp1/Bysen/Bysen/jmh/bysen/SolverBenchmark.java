@@ -0,0 +1,51 @@
+package bysen;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks whole games played by the {@link BeliefSolver}, which covers both the belief
+ * updates and the engine's rules. Games on large maps are cut off after a fixed number of turns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SolverBenchmark {
+    static final int maxTurns = 200;
+
+    @Param({"20", "10000"})
+    int rooms;
+
+    GameEngine engine;
+    BeliefSolver solver;
+    SplittableRandom rand;
+
+    @Setup
+    public void setUp() {
+        GameMap map = rooms == 20 ? GameMap.dodecahedron() : new MapGenerator().generate(rooms, 1);
+        rand = new SplittableRandom(1);
+        engine = new GameEngine(map, new SplittableRandom(2));
+        solver = new BeliefSolver();
+    }
+
+    @Benchmark
+    public int playGame() {
+        engine.startNewGame("Bench");
+        solver.newGame(engine);
+        int turns = 0;
+        while (!engine.isGameOver() && turns++ < maxTurns) {
+            int action = solver.nextAction(engine, rand);
+            int room = MovePolicy.room(action);
+            Outcome outcome = MovePolicy.isThrow(action) ? engine.throwNet(room) : engine.move(room);
+            if (outcome == Outcome.QUIZ)
+                engine.answerQuiz(solver.answerQuiz(engine, rand));
+            engine.clearMessages();
+        }
+        return turns;
+    }
+}
@@ -0,0 +1,42 @@
+package bysen;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks one tick of wandering creatures on a large map. With a mean period of 3
+ * ticks, a third of the creatures move in each tick, so the time per tick divided by
+ * creatures / 3 is the cost of one scheduled move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class WanderBenchmark {
+    @Param({"1000", "100000", "500000"})
+    int creatures;
+
+    Wanderers wanderers;
+
+    @Setup
+    public void setUp() {
+        GameMap map = new MapGenerator().generate(1_000_000, 1);
+        CreatureBoard board = new CreatureBoard(map.getRoomCount(), new WarningIndex(map));
+        SplittableRandom rand = new SplittableRandom(1);
+        wanderers = new Wanderers(map, board, rand);
+        Creatures[] types = Creatures.values();
+        for (Creatures type : types)
+            wanderers.setPeriod(type, 3);
+        for (int i = 0; i < creatures; i++)
+            wanderers.spawn(types[i % types.length], rand.nextInt(map.getRoomCount()));
+    }
+
+    @Benchmark
+    public int tick() {
+        return wanderers.tick();
+    }
+}
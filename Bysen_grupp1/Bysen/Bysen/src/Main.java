@@ -1,19 +0,0 @@
-import javax.swing.*;
-import java.awt.*;
-
-import static javax.swing.SwingUtilities.invokeLater;
-
-public class Main {
-    public static void main(String[] args) {
-        invokeLater(() -> {
-            JFrame f = new JFrame();
-            f.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            f.setTitle("Fånga Bysen");
-            f.setResizable(false);
-            f.add(new Game(), BorderLayout.CENTER);
-            f.pack();
-            f.setLocationRelativeTo(null);
-            f.setVisible(true);
-        });
-    }
-}
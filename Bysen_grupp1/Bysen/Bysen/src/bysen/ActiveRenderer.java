@@ -0,0 +1,250 @@
+package bysen;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferStrategy;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Renders the game at a fixed frame rate on a {@link Canvas} with a {@link BufferStrategy},
+ * instead of repainting the {@link Game} panel after each click. A render thread keeps the
+ * frame pace; each frame is drawn on the Event Dispatch Thread, where the game's view state
+ * lives. Moves, Vittra teleports and Bysen escaping are animated.
+ * <p>
+ * The canvas takes the place of the panel in the window, and clicks on it are passed to the
+ * game. A frame that is not done by its deadline is counted as dropped, see {@link FrameStats}.
+ */
+public class ActiveRenderer {
+    static final long moveNanos = 250_000_000L;
+    static final long teleportNanos = 400_000_000L;
+    static final long escapeNanos = 600_000_000L;
+
+    private final Game game;
+    private final GameGraphics graphics;
+    private final Canvas canvas = new Canvas();
+    private final long frameNanos;
+    private final FrameStats stats;
+    private Thread thread;
+    private volatile boolean running;
+
+    //Animation state, only used on the Event Dispatch Thread
+    private TurnResult shown;
+    private int fromRoom = -1;
+    private long moveStart;
+    private boolean teleport;
+    private int escapeRoom = -1;
+    private long escapeStart;
+
+    /**
+     * @param game The game to draw. It is not shown itself; the canvas is.
+     * @param fps The target frame rate.
+     */
+    public ActiveRenderer(Game game, int fps) {
+        if (game == null)
+            throw new NullPointerException("Game cannot be null");
+        this.game = game;
+        this.graphics = new GameGraphics(game);
+        this.stats = new FrameStats(fps);
+        this.frameNanos = stats.getBudgetNanos();
+        canvas.setPreferredSize(game.getPreferredSize());
+        canvas.setBackground(game.getBackground());
+        canvas.setIgnoreRepaint(true);
+        canvas.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                game.handleMousePress(e);
+            }
+        });
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    public FrameStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Starts rendering. The canvas must be in a visible window. The render thread prepares
+     * the graphics before the first frame, see {@link GameGraphics#prepare}.
+     */
+    public void start() {
+        canvas.createBufferStrategy(2);
+        GraphicsConfiguration config = canvas.getGraphicsConfiguration();
+        Dimension size = canvas.getSize();
+        running = true;
+        thread = new Thread(() -> {
+            if (size.width > 0 && size.height > 0)
+                graphics.prepare(config, size.width, size.height);
+            run();
+        }, "active-renderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops rendering. Does not wait for the render thread, so it can be called on the
+     * Event Dispatch Thread.
+     */
+    public void stop() {
+        running = false;
+        if (thread != null)
+            thread.interrupt();
+    }
+
+    private void run() {
+        long deadline = System.nanoTime() + frameNanos;
+        while (running) {
+            long start = System.nanoTime();
+            try {
+                EventQueue.invokeAndWait(this::renderFrame);
+            } catch (InterruptedException e) {
+                return;
+            } catch (InvocationTargetException e) {
+                System.err.println("Cannot render a frame: " + e.getCause());
+            }
+            long now = System.nanoTime();
+            stats.frame(now - start);
+            if (now > deadline) {
+                // Missed the deadline: skip the frames that are already late
+                long late = (now - deadline) / frameNanos + 1;
+                stats.dropped(late);
+                deadline += late * frameNanos;
+            }
+            LockSupport.parkNanos(deadline - System.nanoTime());
+            deadline += frameNanos;
+        }
+    }
+
+    /**
+     * Draws one frame into the back buffer and shows it.
+     */
+    private void renderFrame() {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        if (strategy == null || !canvas.isShowing())
+            return;
+        if (game.getWidth() != canvas.getWidth() || game.getHeight() != canvas.getHeight())
+            game.setSize(canvas.getWidth(), canvas.getHeight());
+        long now = System.nanoTime();
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    draw(g, now);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        StartupTimer.firstPaint();
+        if (game.isReady())
+            StartupTimer.interactive();
+    }
+
+    /**
+     * Starts the animations for a state the renderer has not drawn before.
+     */
+    private void update(TurnResult state, long now) {
+        if (state == shown)
+            return;
+        if (shown != null && !shown.gameOver && state.currRoom != shown.currRoom) {
+            fromRoom = shown.currRoom;
+            moveStart = now;
+            teleport = state.messages.contains(Message.VITTRA_TELEPORT);
+        }
+        if (state.outcome == Outcome.BYSEN_ESCAPED && game.getLastTarget() != -1) {
+            escapeRoom = game.getLastTarget();
+            escapeStart = now;
+        }
+        shown = state;
+    }
+
+    /**
+     * Returns how far an animation has come, from 0 to 1.
+     */
+    static double progress(long start, long now, long duration) {
+        return Math.max(0, Math.min(1, (double) (now - start) / duration));
+    }
+
+    /**
+     * Slows the end of a movement down.
+     */
+    static double easeOut(double t) {
+        return 1 - (1 - t) * (1 - t);
+    }
+
+    void draw(Graphics2D g, long now) {
+        TurnResult state = game.getState();
+        update(state, now);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(game.getBackground());
+        g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        g.setFont(game.getFont());
+
+        graphics.drawRooms(g);
+        if (state.gameOver) {
+            graphics.drawStartScreen(g);
+        } else {
+            drawEscape(g, now);
+            drawPlayer(g, state, now);
+        }
+        graphics.drawHud(g, state);
+    }
+
+    /**
+     * Draws the player, sliding from the last room or fading out and in after a teleport.
+     */
+    private void drawPlayer(Graphics2D g, TurnResult state, long now) {
+        if (fromRoom == -1) {
+            graphics.drawPlayer(g, state.currRoom, 0, 0);
+            return;
+        }
+        GameMap map = game.getEngine().getMap();
+        if (teleport) {
+            double t = progress(moveStart, now, teleportNanos);
+            Composite composite = g.getComposite();
+            float alpha = (float) Math.abs(1 - 2 * t);
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+            graphics.drawPlayer(g, t < 0.5 ? fromRoom : state.currRoom, 0, 0);
+            g.setComposite(composite);
+            if (t >= 1)
+                fromRoom = -1;
+        } else {
+            double t = easeOut(progress(moveStart, now, moveNanos));
+            double dx = (map.x(state.currRoom) - map.x(fromRoom)) * t;
+            double dy = (map.y(state.currRoom) - map.y(fromRoom)) * t;
+            graphics.drawPlayer(g, fromRoom, dx, dy);
+            if (t >= 1)
+                fromRoom = -1;
+        }
+    }
+
+    /**
+     * Draws a ring spreading out from the room Bysen escaped from.
+     */
+    private void drawEscape(Graphics2D g, long now) {
+        if (escapeRoom == -1)
+            return;
+        double t = progress(escapeStart, now, escapeNanos);
+        if (t >= 1) {
+            escapeRoom = -1;
+            return;
+        }
+        GameMap map = game.getEngine().getMap();
+        double radius = GameView.roomSize / 2.0 * (1 + 4 * t);
+        int cx = map.x(escapeRoom) + GameView.roomSize / 2;
+        int cy = map.y(escapeRoom) + GameView.roomSize / 2;
+        Composite composite = g.getComposite();
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) (1 - t)));
+        g.setColor(Color.darkGray);
+        g.setStroke(GameGraphics.stroke(2));
+        int r = (int) radius;
+        g.drawOval(cx - r, cy - r, 2 * r, 2 * r);
+        g.setComposite(composite);
+    }
+}
@@ -0,0 +1,306 @@
+package bysen;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders game states to PNG images without a window, for example under
+ * {@code java.awt.headless=true}. The states are split over worker threads that pull the
+ * next index from a shared counter. Each worker draws with its own {@link GameGraphics}
+ * into its own image and graphics object, which are reused for every state it renders,
+ * so the map layer and the laid-out text are only built once per worker. The workers also
+ * keep their own PNG writer, set to fast compression.
+ */
+public class BatchRenderer {
+    static final int defaultWidth = 721, defaultHeight = 687;
+    // The fastest deflate levels; the flat colours of the map still compress well
+    static final float compressionQuality = 0.9f;
+
+    static {
+        // Encode in memory instead of through a temporary file
+        ImageIO.setUseCache(false);
+    }
+
+    private final GameMap map;
+    private final int width, height;
+    private final int threads;
+
+    /**
+     * The result of a batch.
+     */
+    public static final class Report {
+        final int images;
+        final double seconds;
+        final long bytes;
+
+        Report(int images, double seconds, long bytes) {
+            this.images = images;
+            this.seconds = seconds;
+            this.bytes = bytes;
+        }
+
+        public int getImages() {
+            return images;
+        }
+        public long getBytes() {
+            return bytes;
+        }
+        public double getImagesPerSecond() {
+            return images / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Images: %d in %.2f s, %.0f images/s, %.1f KiB per image%n",
+                    images, seconds, getImagesPerSecond(), images == 0 ? 0 : bytes / 1024.0 / images);
+        }
+    }
+
+    /**
+     * @param map The map the states were played on.
+     * @param width The width of the images.
+     * @param height The height of the images.
+     * @param threads The number of worker threads.
+     */
+    public BatchRenderer(GameMap map, int width, int height, int threads) {
+        if (map == null)
+            throw new NullPointerException("Map cannot be null");
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("Image size must be at least 1x1");
+        if (threads < 1)
+            throw new IllegalArgumentException("Threads must be at least 1");
+        this.map = map;
+        this.width = width;
+        this.height = height;
+        this.threads = threads;
+    }
+
+    /**
+     * One worker's view, image and graphics. The view shows whichever state the worker is
+     * rendering.
+     */
+    private final class Worker implements GameView {
+        private final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        private final Graphics2D g = image.createGraphics();
+        private final GameGraphics graphics = new GameGraphics(this);
+        private final ByteArrayOutputStream png = new ByteArrayOutputStream(1 << 16);
+        private final ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        private final ImageWriteParam param = writer.getDefaultWriteParam();
+        private final IIOImage output = new IIOImage(image, null, null);
+        private final Font font = new Font("SansSerif", Font.PLAIN, 18);
+        private TurnResult state = TurnResult.initial;
+        private long bytes;
+
+        Worker() {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setFont(font);
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(compressionQuality);
+        }
+
+        @Override
+        public TurnResult getState() {
+            return state;
+        }
+        @Override
+        public GameMap getMap() {
+            return map;
+        }
+        @Override
+        public MessageLog getMessages() {
+            return state.messages;
+        }
+        @Override
+        public int getWidth() {
+            return width;
+        }
+        @Override
+        public int getHeight() {
+            return height;
+        }
+        @Override
+        public Color getBackground() {
+            return Color.white;
+        }
+        @Override
+        public Font getFont() {
+            return font;
+        }
+
+        void render(TurnResult state) {
+            this.state = state;
+            graphics.drawRooms(g);
+            if (state.gameOver)
+                graphics.drawStartScreen(g);
+            else
+                graphics.drawPlayer(g);
+            graphics.drawHud(g, state);
+        }
+
+        void write(Path file) throws IOException {
+            png.reset();
+            try (ImageOutputStream stream = new MemoryCacheImageOutputStream(png)) {
+                writer.setOutput(stream);
+                writer.write(null, output, param);
+            }
+            bytes += png.size();
+            if (file != null)
+                Files.write(file, png.toByteArray());
+        }
+
+        void dispose() {
+            writer.dispose();
+            g.dispose();
+            image.flush();
+        }
+    }
+
+    /**
+     * Renders one image.
+     *
+     * @param state The state to draw.
+     * @return A new image of the state.
+     */
+    public BufferedImage render(TurnResult state) {
+        if (state == null)
+            throw new NullPointerException("State cannot be null");
+        Worker worker = new Worker();
+        try {
+            worker.render(state);
+            BufferedImage copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            copy.setData(worker.image.getRaster());
+            return copy;
+        } finally {
+            worker.dispose();
+        }
+    }
+
+    /**
+     * Renders the states to PNG files named {@code state-00000.png} and so on, in the order
+     * of the list. Without a directory the images are encoded but not written, which
+     * measures the rendering and encoding alone.
+     *
+     * @param states The states to draw.
+     * @param directory The directory to write to, or null.
+     * @return The number of images and the time it took.
+     * @throws IOException If an image could not be written.
+     * @throws InterruptedException If the thread was interrupted while waiting for the workers.
+     */
+    public Report render(List<TurnResult> states, Path directory) throws IOException, InterruptedException {
+        if (states == null)
+            throw new NullPointerException("States cannot be null");
+        if (directory != null)
+            Files.createDirectories(directory);
+        AtomicInteger next = new AtomicInteger();
+        long[] bytes = new long[threads];
+        Throwable[] errors = new Throwable[threads];
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            int id = i;
+            workers[i] = new Thread(() -> {
+                Worker worker = new Worker();
+                try {
+                    for (int index; (index = next.getAndIncrement()) < states.size(); ) {
+                        worker.render(states.get(index));
+                        worker.write(directory == null ? null
+                                : directory.resolve(String.format("state-%05d.png", index)));
+                    }
+                } catch (IOException | RuntimeException | Error e) {
+                    errors[id] = e;
+                    next.set(states.size()); // stop the other workers
+                } finally {
+                    bytes[id] = worker.bytes;
+                    worker.dispose();
+                }
+            }, "batch-renderer-" + i);
+            workers[i].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long total = 0;
+        for (int i = 0; i < threads; i++) {
+            if (errors[i] instanceof IOException)
+                throw (IOException) errors[i];
+            if (errors[i] instanceof RuntimeException)
+                throw (RuntimeException) errors[i];
+            if (errors[i] instanceof Error)
+                throw (Error) errors[i];
+            total += bytes[i];
+        }
+        return new Report(states.size(), seconds, total);
+    }
+
+    /**
+     * Returns states to render: the start screen, and the state after every turn of
+     * simulated games. Every fourth state is taken from a {@link GameSnapshot} of the game
+     * loaded into a second engine, the way checkpoints are rendered.
+     *
+     * @param map The map to play on.
+     * @param count The number of states.
+     * @param seed The seed of the simulated games.
+     */
+    public static List<TurnResult> sampleStates(GameMap map, int count, long seed) {
+        if (count < 0)
+            throw new IllegalArgumentException("Count cannot be negative");
+        List<TurnResult> states = new ArrayList<>(count);
+        SplittableRandom rand = new SplittableRandom(seed);
+        GameEngine engine = new GameEngine(map, rand);
+        GameEngine copy = new GameEngine(map, new SplittableRandom(seed));
+        ByteBuffer snapshot = GameSnapshot.allocate(map.getRoomCount(), 1);
+        MovePolicy policy = new RandomMovePolicy();
+        if (count > 0)
+            states.add(TurnResult.initial);
+        while (states.size() < count) {
+            engine.startNewGame(null);
+            policy.newGame(engine);
+            Outcome outcome = null;
+            while (states.size() < count && (outcome == null || !outcome.isGameOver())) {
+                int action = policy.nextAction(engine, rand);
+                int room = MovePolicy.room(action);
+                outcome = MovePolicy.isThrow(action) ? engine.throwNet(room) : engine.move(room);
+                if (outcome == Outcome.QUIZ)
+                    outcome = engine.answerQuiz(policy.answerQuiz(engine, rand));
+                if (states.size() % 4 == 3) {
+                    GameSnapshot.save(engine, snapshot, 0);
+                    GameSnapshot.load(copy, snapshot, 0);
+                    states.add(TurnResult.of(copy, outcome));
+                } else {
+                    states.add(TurnResult.of(engine, outcome));
+                }
+                engine.clearMessages();
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Renders sample states from the command line and prints the throughput.
+     * Arguments: [images] [output directory] [threads]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Path directory = args.length > 1 ? Path.of(args[1]) : null;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        GameMap map = GameMap.dodecahedron();
+        List<TurnResult> states = sampleStates(map, count, 42);
+        System.out.print(new BatchRenderer(map, defaultWidth, defaultHeight, threads).render(states, directory));
+    }
+}
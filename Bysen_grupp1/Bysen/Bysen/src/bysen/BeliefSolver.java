@@ -0,0 +1,280 @@
+package bysen;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A move policy that keeps track of where the creatures may be, using only what the
+ * player can see: the current room, the warnings heard there and the outcome of its
+ * own net throws. It also works as a hint engine through {@link #hint(GameEngine)}.
+ * <p>
+ * The belief about Bysen is a probability per room. The belief about trolls, vittror and
+ * vättar is, per creature, the probability that a room holds one. Each turn the beliefs
+ * are updated with the warnings in the current room; after a missed throw the Bysen belief
+ * follows the rules of {@code moveBysen}: Bysen stays with probability 1/4 and otherwise
+ * moves to a random linked room. All updates are loops over primitive arrays in the map's
+ * link order, so a turn costs time linear in the number of rooms and links.
+ */
+public class BeliefSolver implements MovePolicy {
+    static final Creatures[] hazards = {Creatures.Troll, Creatures.Vittra, Creatures.Vätte};
+    private static final int troll = 0, vittra = 1, vätte = 2; // indexes into hazards
+    static final double stayChance = 0.25;
+    static final double vittraRisk = 0.1;     // a Vittra only moves the player
+    static final double reachWeight = 0.5;    // how much hearing Bysen next turn is worth
+    static final double revisitPenalty = 0.05;
+
+    private GameMap map;
+    private int roomCount;
+    private double[] bysen;     // [room]
+    private double[] share;     // [room], scratch for the Bysen transition
+    private double[] danger;    // [hazard * roomCount + room]
+    private int[] visits;       // [room]
+    private int lastAction;
+    private boolean started;
+
+    /**
+     * Sets up the beliefs for a new game: the creatures are placed at random, but not
+     * closer to the player's first room than the engine's min creature distance.
+     */
+    @Override
+    public void newGame(GameEngine engine) {
+        GameMap map = engine.getMap();
+        if (map != this.map) {
+            this.map = map;
+            roomCount = map.getRoomCount();
+            bysen = new double[roomCount];
+            share = new double[roomCount];
+            danger = new double[hazards.length * roomCount];
+            visits = new int[roomCount];
+        }
+        int start = engine.getCurrRoom();
+        int minDistance = engine.getMinCreatureDistance();
+        RoomDistances distances = map.getDistances();
+        int eligible = 0;
+        for (int room = 0; room < roomCount; room++)
+            if (distances.distance(start, room) >= minDistance)
+                eligible++;
+        Arrays.fill(bysen, eligible > 0 ? 1.0 / eligible : 0);
+        for (int h = 0; h < hazards.length; h++) {
+            double prior = eligible > 0 ? Math.min(1, (double) engine.creatures.count(hazards[h]) / eligible) : 0;
+            Arrays.fill(danger, h * roomCount, (h + 1) * roomCount, prior);
+        }
+        clearNear(start, minDistance);
+        Arrays.fill(visits, 0);
+        lastAction = MovePolicy.move(start);
+        started = true;
+    }
+
+    /**
+     * Removes all belief from the rooms closer to a room than the given distance.
+     */
+    private void clearNear(int room, int minDistance) {
+        RoomDistances distances = map.getDistances();
+        for (int other = 0; other < roomCount; other++)
+            if (distances.distance(room, other) < minDistance)
+                setAll(other, 0);
+    }
+
+    private void setAll(int room, double value) {
+        bysen[room] = value;
+        for (int h = 0; h < hazards.length; h++)
+            danger[h * roomCount + room] = value;
+    }
+
+    /**
+     * Updates the beliefs with what happened since the last action and what can be heard now.
+     *
+     * @param engine The engine the game runs on.
+     */
+    void update(GameEngine engine) {
+        if (!started)
+            throw new IllegalStateException("The solver has not seen the start of the game");
+        int currRoom = engine.getCurrRoom();
+        int lastRoom = MovePolicy.room(lastAction);
+        if (MovePolicy.isThrow(lastAction)) {
+            bysen[lastRoom] = 0; // the net missed
+            moveBysen();
+        } else if (lastRoom != currRoom) {
+            teleported(lastRoom);
+        }
+        visits[currRoom]++;
+        setAll(currRoom, 0); // the player is still alive here
+        int warnings = engine.getWarnings();
+        observeBysen(currRoom, (warnings & 1 << Creatures.Bysen.ordinal()) != 0);
+        for (int h = 0; h < hazards.length; h++)
+            observe(h * roomCount, currRoom, (warnings & 1 << hazards[h].ordinal()) != 0);
+    }
+
+    /**
+     * Spreads the Bysen belief the way Bysen moves after a missed net.
+     */
+    private void moveBysen() {
+        for (int r = 0; r < roomCount; r++)
+            share[r] = bysen[r] * (1 - stayChance) / map.degree(r);
+        for (int r = 0; r < roomCount; r++) {
+            double moved = 0;
+            for (int i = map.linkStart(r), end = map.linkEnd(r); i < end; i++)
+                moved += share[map.linkTarget(i)];
+            bysen[r] = bysen[r] * stayChance + moved;
+        }
+    }
+
+    /**
+     * A Vittra in the room the player moved to sent the player elsewhere and moved to a
+     * random room.
+     */
+    private void teleported(int vittraRoom) {
+        int base = vittra * roomCount;
+        double spread = 1.0 / Math.max(1, roomCount - 1);
+        for (int r = base, end = base + roomCount; r < end; r++)
+            danger[r] = Math.min(1, danger[r] + spread);
+        danger[base + vittraRoom] = 0;
+    }
+
+    /**
+     * Updates the Bysen belief with whether Bysen can be heard from the given room.
+     * There is only one Bysen, so if it is heard it is in one of the linked rooms and
+     * nowhere else, and if not it is in none of them.
+     */
+    private void observeBysen(int room, boolean heard) {
+        int start = map.linkStart(room), end = map.linkEnd(room);
+        if (!heard) {
+            for (int i = start; i < end; i++)
+                bysen[map.linkTarget(i)] = 0;
+            normalize(bysen);
+            return;
+        }
+        double kept = 0;
+        for (int i = start; i < end; i++)
+            kept += bysen[map.linkTarget(i)];
+        for (int i = start; i < end; i++) {
+            int link = map.linkTarget(i);
+            // If the belief ruled the linked rooms out, the warning proves it wrong
+            share[link] = kept > 0 ? bysen[link] / kept : 1.0 / (end - start);
+        }
+        Arrays.fill(bysen, 0);
+        for (int i = start; i < end; i++)
+            bysen[map.linkTarget(i)] = share[map.linkTarget(i)];
+    }
+
+    /**
+     * Updates one hazard's belief with whether it can be heard from the given room.
+     * If it is heard, at least one linked room holds it, so the linked rooms are scaled
+     * up to a total of at least 1. If not, none of them holds it.
+     */
+    private void observe(int base, int room, boolean heard) {
+        int start = map.linkStart(room), end = map.linkEnd(room);
+        if (!heard) {
+            for (int i = start; i < end; i++)
+                danger[base + map.linkTarget(i)] = 0;
+            return;
+        }
+        double sum = 0;
+        for (int i = start; i < end; i++)
+            sum += danger[base + map.linkTarget(i)];
+        for (int i = start; i < end; i++) {
+            int j = base + map.linkTarget(i);
+            if (sum <= 0)
+                danger[j] = 1.0 / (end - start);
+            else if (sum < 1)
+                danger[j] = Math.min(1, danger[j] / sum);
+        }
+    }
+
+    private static void normalize(double[] belief) {
+        double sum = 0;
+        for (double p : belief)
+            sum += p;
+        if (sum > 0) {
+            double scale = 1 / sum;
+            for (int i = 0; i < belief.length; i++)
+                belief[i] *= scale;
+        }
+    }
+
+    /**
+     * Chooses the best action for the current beliefs: a throw at the most likely linked
+     * room when Bysen can be heard, otherwise a move to the linked room with the lowest risk
+     * that is most likely to bring Bysen within hearing.
+     */
+    private int choose(GameEngine engine) {
+        int currRoom = engine.getCurrRoom();
+        int start = map.linkStart(currRoom), end = map.linkEnd(currRoom);
+        if (engine.isWarned(Creatures.Bysen) && engine.getNumNets() > 0) {
+            int best = map.linkTarget(start);
+            for (int i = start + 1; i < end; i++)
+                if (bysen[map.linkTarget(i)] > bysen[best])
+                    best = map.linkTarget(i);
+            return MovePolicy.throwNet(best);
+        }
+        int best = -1;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = start; i < end; i++) {
+            int room = map.linkTarget(i);
+            double score = risk(room) - reachWeight * reach(room) + revisitPenalty * visits[room];
+            if (score < bestScore) {
+                bestScore = score;
+                best = room;
+            }
+        }
+        return MovePolicy.move(best);
+    }
+
+    /**
+     * Returns the chance that moving to the room goes wrong.
+     */
+    private double risk(int room) {
+        double safe = 1 - bysen[room];
+        safe *= 1 - danger[troll * roomCount + room];
+        safe *= 1 - vittraRisk * danger[vittra * roomCount + room];
+        safe *= 1 - danger[vätte * roomCount + room];
+        return 1 - safe;
+    }
+
+    /**
+     * Returns the chance that Bysen can be heard from the room.
+     */
+    private double reach(int room) {
+        double reach = 0;
+        for (int i = map.linkStart(room), end = map.linkEnd(room); i < end; i++)
+            reach += bysen[map.linkTarget(i)];
+        return reach;
+    }
+
+    @Override
+    public int nextAction(GameEngine engine, RandomGenerator rand) {
+        update(engine);
+        lastAction = choose(engine);
+        return lastAction;
+    }
+
+    /**
+     * Suggests an action to a human player without changing the beliefs' history.
+     * Call {@link #nextAction(GameEngine, RandomGenerator)} instead when the action is taken.
+     *
+     * @param engine The engine the game runs on.
+     * @return The encoded action, see {@link MovePolicy}.
+     */
+    public int hint(GameEngine engine) {
+        if (!started)
+            throw new IllegalStateException("The solver has not seen the start of the game");
+        return choose(engine);
+    }
+
+    /**
+     * Returns the probability that Bysen is in the room.
+     */
+    public double bysenProbability(int room) {
+        return bysen[room];
+    }
+
+    /**
+     * Returns the probability that the room holds the creature, for trolls, vittror and vättar.
+     */
+    public double dangerProbability(int room, Creatures creature) {
+        for (int h = 0; h < hazards.length; h++)
+            if (hazards[h] == creature)
+                return danger[h * roomCount + room];
+        throw new IllegalArgumentException("No belief is kept for " + creature);
+    }
+}
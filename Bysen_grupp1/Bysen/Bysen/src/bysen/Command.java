@@ -0,0 +1,58 @@
+package bysen;
+
+/**
+ * A command from the player to the game loop: start a game, move, throw a net or answer the quiz.
+ */
+public final class Command {
+    public enum Type { NEW_GAME, START, MOVE, THROW, ANSWER }
+
+    final Type type;
+    final int value;
+    final String name;
+
+    private Command(Type type, int value, String name) {
+        this.type = type;
+        this.value = value;
+        this.name = name;
+    }
+
+    /**
+     * Asks for a new game. The game loop answers with a request for the player's name.
+     */
+    public static Command newGame() {
+        return new Command(Type.NEW_GAME, -1, null);
+    }
+
+    /**
+     * Starts a new game for the given player.
+     */
+    public static Command start(String playerName) {
+        return new Command(Type.START, -1, playerName);
+    }
+
+    public static Command move(int room) {
+        return new Command(Type.MOVE, room, null);
+    }
+
+    public static Command throwNet(int room) {
+        return new Command(Type.THROW, room, null);
+    }
+
+    /**
+     * Answers the Tomte's quiz question.
+     *
+     * @param answer The index of the chosen option, or -1 if no option was chosen.
+     */
+    public static Command answer(int answer) {
+        return new Command(Type.ANSWER, answer, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return type + (name != null ? "(" + name + ")" : value != -1 ? "(" + value + ")" : "");
+    }
+}
@@ -0,0 +1,224 @@
+package bysen;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Keeps track of which rooms hold which creatures, with one bit mask per creature type.
+ * Maps with up to 64 rooms use a single long per creature, larger maps use one long
+ * per 64 rooms. All queries and updates are bit operations that do not allocate.
+ * A board can keep a {@link WarningIndex} up to date as creatures are added and removed.
+ */
+public class CreatureBoard {
+    static final int creatureCount = Creatures.values().length;
+
+    private final int roomCount;
+    private final int words;
+    private final long[] bits;
+    private final WarningIndex warnings;
+
+    /**
+     * @param roomCount The number of rooms on the map.
+     */
+    public CreatureBoard(int roomCount) {
+        this(roomCount, null);
+    }
+
+    /**
+     * @param roomCount The number of rooms on the map.
+     * @param warnings The warning index to keep up to date, or null.
+     */
+    public CreatureBoard(int roomCount, WarningIndex warnings) {
+        if (roomCount < 1)
+            throw new IllegalArgumentException("Room count must be at least 1");
+        this.roomCount = roomCount;
+        this.words = (roomCount + 63) >>> 6;
+        this.bits = new long[creatureCount * words];
+        this.warnings = warnings;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Returns the number of longs used for each creature's mask.
+     */
+    public int getWords() {
+        return words;
+    }
+
+    private int index(int room, Creatures creature) {
+        return creature.ordinal() * words + (room >>> 6);
+    }
+
+    /**
+     * Returns true if the room holds the creature.
+     */
+    public boolean contains(int room, Creatures creature) {
+        return (bits[index(room, creature)] & (1L << room)) != 0;
+    }
+
+    public void add(int room, Creatures creature) {
+        int i = index(room, creature);
+        long bit = 1L << room;
+        if ((bits[i] & bit) == 0) {
+            bits[i] |= bit;
+            if (warnings != null)
+                warnings.added(room, creature.ordinal());
+        }
+    }
+
+    public void remove(int room, Creatures creature) {
+        int i = index(room, creature);
+        long bit = 1L << room;
+        if ((bits[i] & bit) != 0) {
+            bits[i] &= ~bit;
+            if (warnings != null)
+                warnings.removed(room, creature.ordinal());
+        }
+    }
+
+    /**
+     * Moves a creature from one room to another.
+     */
+    public void move(Creatures creature, int from, int to) {
+        remove(from, creature);
+        add(to, creature);
+    }
+
+    /**
+     * Removes all creatures from a room.
+     */
+    public void clearRoom(int room) {
+        long bit = 1L << room;
+        for (int c = 0, i = room >>> 6; i < bits.length; c++, i += words) {
+            if ((bits[i] & bit) != 0) {
+                bits[i] &= ~bit;
+                if (warnings != null)
+                    warnings.removed(room, c);
+            }
+        }
+    }
+
+    /**
+     * Removes all creatures from all rooms.
+     */
+    public void clear() {
+        Arrays.fill(bits, 0);
+        if (warnings != null)
+            warnings.clear();
+    }
+
+    /**
+     * Returns the creatures in a room as a mask with one bit per creature ordinal.
+     */
+    public int roomMask(int room) {
+        int word = room >>> 6;
+        long bit = 1L << room;
+        int mask = 0;
+        for (int c = 0; c < creatureCount; c++)
+            if ((bits[c * words + word] & bit) != 0)
+                mask |= 1 << c;
+        return mask;
+    }
+
+    /**
+     * Returns true if the room holds no creatures.
+     */
+    public boolean isEmpty(int room) {
+        return roomMask(room) == 0;
+    }
+
+    /**
+     * Returns true if any room linked to the given room holds the creature.
+     *
+     * @param creature The creature to look for.
+     * @param map The map the links are taken from.
+     * @param room The room whose links are searched.
+     */
+    public boolean containsLinked(Creatures creature, GameMap map, int room) {
+        int base = creature.ordinal() * words;
+        for (int i = map.linkStart(room), end = map.linkEnd(room); i < end; i++) {
+            int link = map.linkTarget(i);
+            if ((bits[base + (link >>> 6)] & (1L << link)) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the creatures in the rooms linked to the given room as a mask with one bit per creature ordinal.
+     *
+     * @param map The map the links are taken from.
+     * @param room The room whose links are searched.
+     */
+    public int linkedMask(GameMap map, int room) {
+        int mask = 0;
+        for (int i = map.linkStart(room), end = map.linkEnd(room); i < end; i++)
+            mask |= roomMask(map.linkTarget(i));
+        return mask;
+    }
+
+    /**
+     * Returns the number of rooms that hold the creature.
+     */
+    public int count(Creatures creature) {
+        int count = 0;
+        int base = creature.ordinal() * words;
+        for (int i = 0; i < words; i++)
+            count += Long.bitCount(bits[base + i]);
+        return count;
+    }
+
+    /**
+     * Returns the word of the creature's mask that covers rooms 64 * word to 64 * word + 63.
+     */
+    public long word(Creatures creature, int word) {
+        return bits[creature.ordinal() * words + word];
+    }
+
+    /**
+     * Returns the number of bytes {@link #save(ByteBuffer, int)} writes.
+     */
+    public int byteSize() {
+        return bits.length * Long.BYTES;
+    }
+
+    /**
+     * Writes the masks of all creatures to a buffer, creature by creature.
+     *
+     * @param buffer The buffer to write to. Its position is not changed.
+     * @param offset The index of the first byte to write.
+     */
+    public void save(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < bits.length; i++)
+            buffer.putLong(offset + i * Long.BYTES, bits[i]);
+    }
+
+    /**
+     * Replaces all creatures with the masks written by {@link #save(ByteBuffer, int)}
+     * and rebuilds the warning index.
+     *
+     * @param buffer The buffer to read from. Its position is not changed.
+     * @param offset The index of the first byte to read.
+     */
+    public void load(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < bits.length; i++)
+            bits[i] = buffer.getLong(offset + i * Long.BYTES);
+        if ((roomCount & 63) != 0) {
+            long last = -1L >>> (64 - (roomCount & 63));
+            for (int i = words - 1; i < bits.length; i += words)
+                bits[i] &= last;
+        }
+        if (warnings != null) {
+            warnings.clear();
+            for (int i = 0; i < bits.length; i++) {
+                int creature = i / words;
+                int base = (i % words) << 6;
+                for (long word = bits[i]; word != 0; word &= word - 1)
+                    warnings.added(base + Long.numberOfTrailingZeros(word), creature);
+            }
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package bysen;
+
 /**
  * Enum for the different creatures in the game.
  * Each creature has a warning that is displayed when the player is close to the creature.
@@ -0,0 +1,93 @@
+package bysen;
+
+import java.util.Arrays;
+
+/**
+ * Exact distances and next hops between all pairs of rooms, from one breadth-first search
+ * per room. Both are kept in flat byte matrices indexed by {@code from * roomCount + to}:
+ * the distance, and the index of the link of the first room to take. The tables take
+ * two bytes per pair of rooms, so they are only built for maps of up to
+ * {@link #maxRooms} rooms whose distances and degrees fit in a byte.
+ */
+final class DistanceTable implements RoomDistances {
+    static final int maxRooms = 2048;
+    private static final int none = 0xFF;
+
+    private final GameMap map;
+    private final int roomCount;
+    private final byte[] distances; // unsigned, none if unreachable
+    private final byte[] hops;      // unsigned link index, none if there is no next hop
+
+    private DistanceTable(GameMap map, byte[] distances, byte[] hops) {
+        this.map = map;
+        this.roomCount = map.getRoomCount();
+        this.distances = distances;
+        this.hops = hops;
+    }
+
+    /**
+     * Builds the table of a map.
+     *
+     * @param map The map.
+     * @return The table, or null if the map is too large for it.
+     */
+    static DistanceTable build(GameMap map) {
+        int n = map.getRoomCount();
+        if (n > maxRooms)
+            return null;
+        for (int room = 0; room < n; room++)
+            if (map.degree(room) >= none)
+                return null;
+        byte[] distances = new byte[n * n];
+        byte[] hops = new byte[n * n];
+        Arrays.fill(distances, (byte) none);
+        Arrays.fill(hops, (byte) none);
+        int[] queue = new int[n];
+        for (int from = 0; from < n; from++) {
+            int row = from * n;
+            distances[row + from] = 0;
+            // The first rooms get the index of their link, and pass it on to the rooms they reach
+            int head = 0, tail = 0;
+            for (int i = map.linkStart(from), end = map.linkEnd(from); i < end; i++) {
+                int link = map.linkTarget(i);
+                if (distances[row + link] == (byte) none) {
+                    distances[row + link] = 1;
+                    hops[row + link] = (byte) (i - map.linkStart(from));
+                    queue[tail++] = link;
+                }
+            }
+            while (head < tail) {
+                int room = queue[head++];
+                int next = (distances[row + room] & 0xFF) + 1;
+                if (next >= none)
+                    return null;
+                for (int i = map.linkStart(room), end = map.linkEnd(room); i < end; i++) {
+                    int link = map.linkTarget(i);
+                    if (distances[row + link] == (byte) none) {
+                        distances[row + link] = (byte) next;
+                        hops[row + link] = hops[row + room];
+                        queue[tail++] = link;
+                    }
+                }
+            }
+        }
+        return new DistanceTable(map, distances, hops);
+    }
+
+    @Override
+    public int distance(int from, int to) {
+        int distance = distances[from * roomCount + to] & 0xFF;
+        return distance == none ? unreachable : distance;
+    }
+
+    @Override
+    public int nextHop(int from, int to) {
+        int hop = hops[from * roomCount + to] & 0xFF;
+        return hop == none ? -1 : map.link(from, hop);
+    }
+
+    @Override
+    public boolean isExact() {
+        return true;
+    }
+}
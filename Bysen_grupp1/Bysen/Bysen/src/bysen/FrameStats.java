@@ -0,0 +1,64 @@
+package bysen;
+
+/**
+ * Frame times and dropped frames of an {@link ActiveRenderer}, measured against the frame
+ * budget of the target frame rate.
+ */
+public class FrameStats {
+    private final int fps;
+    private final long budgetNanos;
+    private final Histogram frameTimes = new Histogram();
+    private final long startTime = System.nanoTime();
+    private long frames, dropped, overBudget;
+
+    /**
+     * @param fps The target frame rate.
+     */
+    public FrameStats(int fps) {
+        if (fps < 1)
+            throw new IllegalArgumentException("Frame rate must be at least 1");
+        this.fps = fps;
+        this.budgetNanos = 1_000_000_000L / fps;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * Records the time it took to render a frame.
+     */
+    public synchronized void frame(long nanos) {
+        frames++;
+        if (nanos > budgetNanos)
+            overBudget++;
+        frameTimes.record(nanos);
+    }
+
+    /**
+     * Records frames that were skipped because the renderer fell behind.
+     */
+    public synchronized void dropped(long count) {
+        dropped += count;
+    }
+
+    public synchronized long getFrames() {
+        return frames;
+    }
+    public synchronized long getDropped() {
+        return dropped;
+    }
+    public synchronized long getOverBudget() {
+        return overBudget;
+    }
+
+    public synchronized String report() {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        long due = frames + dropped;
+        return String.format("Frames: %d in %.1f s, %.1f fps of %d, dropped %d (%.2f %%)%n"
+                        + "Frame time: p50 %.2f ms, p99 %.2f ms, max %.2f ms, budget %.2f ms, over budget %d%n",
+                frames, seconds, frames / seconds, fps, dropped, due == 0 ? 0 : 100.0 * dropped / due,
+                frameTimes.getPercentile(50) / 1e6, frameTimes.getPercentile(99) / 1e6,
+                frameTimes.getMax() / 1e6, budgetNanos / 1e6, overBudget);
+    }
+}
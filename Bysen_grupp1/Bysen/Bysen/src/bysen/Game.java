@@ -0,0 +1,397 @@
+package bysen;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import javax.swing.*;
+import jdk.jfr.EventType;
+import static javax.swing.SwingUtilities.isLeftMouseButton;
+import static javax.swing.SwingUtilities.isRightMouseButton;
+
+/**
+ * The game class is the Swing view of the game. The game rules live in {@link GameEngine},
+ * which runs on a {@link GameLoop} thread: clicks are sent to the loop as commands, and
+ * the view draws the {@link TurnResult} the loop publishes back.
+ * <p>
+ * The panel can be shown as soon as it is made: the files, the game loop and the graphics
+ * are prepared on a background thread, and until they are ready the panel paints only its
+ * background.
+ */
+public class Game extends JPanel implements GameView {
+    final String defaultPlayerName = "Spelare";
+    static final String replayProperty = "bysen.replay";
+    static final String quizProperty = "bysen.quiz";
+    static final String leaderboardProperty = Leaderboard.fileProperty;
+    static final String wanderProperty = "bysen.wander";
+    private static final EventType paintType = EventType.getEventType(GameEvents.Paint.class);
+
+    //View state variables
+    private MessageLog messages = new MessageLog();
+    private volatile TurnResult state = TurnResult.initial;
+    private volatile int lastTarget = -1;
+
+    //Game components
+    private final long seed = System.nanoTime();
+    private final GameEngine engine = new GameEngine(new SplittableRandom(seed));
+    private final GameLoop loop;
+    private GameGraphics gameGraphics; // null until prepared, only used on the Event Dispatch Thread
+
+    //Constructor
+    public Game() {
+        initUI();
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                handleMousePress(e);
+            }
+        });
+        loop = new GameLoop(engine, result -> SwingUtilities.invokeLater(() -> showResult(result)));
+        Dimension size = getPreferredSize();
+        Thread startup = new Thread(() -> prepare(size), "game-startup");
+        startup.setDaemon(true);
+        startup.start();
+    }
+
+    /**
+     * Does the slow parts of starting: opens the files named by system properties, lets the
+     * creatures wander if {@value #wanderProperty} is set, starts the game loop, and loads
+     * the fonts and renders the map layer of the graphics. The graphics are handed to the
+     * Event Dispatch Thread when they are ready. Commands sent before the loop has started
+     * wait in its queue.
+     *
+     * @param size The size the panel will have.
+     */
+    private void prepare(Dimension size) {
+        try {
+            loadQuizBank();
+            engine.setWandering(Boolean.getBoolean(wanderProperty));
+            startRecording();
+            openLeaderboard();
+        } finally {
+            loop.start();
+        }
+        GameGraphics graphics = new GameGraphics(this);
+        try {
+            graphics.prepare(GraphicsEnvironment.isHeadless() ? null : GraphicsEnvironment
+                    .getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration(),
+                    size.width, size.height);
+        } finally {
+            SwingUtilities.invokeLater(() -> {
+                gameGraphics = graphics;
+                repaint();
+            });
+        }
+    }
+
+    /**
+     * Returns true once the game loop runs and the graphics are prepared. Only call it on
+     * the Event Dispatch Thread.
+     */
+    boolean isReady() {
+        return gameGraphics != null;
+    }
+
+    /**
+     * Uses the quiz bank in the file named by the system property {@value #quizProperty},
+     * if it is set.
+     */
+    private void loadQuizBank() {
+        String file = System.getProperty(quizProperty);
+        if (file == null)
+            return;
+        try {
+            engine.setQuizBank(QuizFile.open(Path.of(file)));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cannot read the quiz bank " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records the results of the games in the leaderboard file named by the system property
+     * {@value #leaderboardProperty}, if it is set.
+     */
+    private void openLeaderboard() {
+        String file = System.getProperty(leaderboardProperty);
+        if (file == null)
+            return;
+        try {
+            Leaderboard leaderboard = Leaderboard.open(Path.of(file));
+            loop.setLeaderboard(leaderboard);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    leaderboard.close();
+                } catch (IOException e) {
+                    System.err.println("Cannot close the leaderboard: " + e.getMessage());
+                }
+            }, "leaderboard-close"));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cannot open the leaderboard " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records the session to the file named by the system property {@value #replayProperty},
+     * if it is set. The log is closed when the program exits.
+     */
+    private void startRecording() {
+        String file = System.getProperty(replayProperty);
+        if (file == null)
+            return;
+        try {
+            ReplayRecorder recorder = new ReplayRecorder(Path.of(file), seed, engine.getMap().getRoomCount(),
+                    engine.getQuizBank(), engine.getWanderers() != null ? ReplayLog.WANDERING : 0);
+            loop.setRecorder(recorder);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    loop.stop(); // nothing may be recorded while the log is cut to size
+                    recorder.close();
+                } catch (IOException e) {
+                    System.err.println("Cannot close the replay log: " + e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "replay-close"));
+        } catch (IOException e) {
+            System.err.println("Cannot record the session to " + file + ": " + e.getMessage());
+        }
+    }
+
+    //Getters and setters
+    public MessageLog getMessages(){
+        return messages;
+    }
+    public void setMessages(MessageLog messages){
+        if (messages == null)
+            throw new NullPointerException("Messages cannot be null");
+        this.messages = messages;
+    }
+    public String getPlayerName() {
+        return state.playerName;
+    }
+
+    /**
+     * Returns the engine. It belongs to the game loop thread; the view only reads its map.
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    public GameMap getMap() {
+        return engine.getMap();
+    }
+
+    /**
+     * Returns the room the player last clicked on, or -1.
+     */
+    public int getLastTarget() {
+        return lastTarget;
+    }
+
+    /**
+     * Returns the last state published by the game loop.
+     */
+    public TurnResult getState() {
+        return state;
+    }
+
+    /**
+     * Initializes the user interface.
+     */
+    private void initUI() {
+        setPreferredSize(new Dimension(721, 687));
+        setBackground(Color.white);
+        setForeground(Color.lightGray);
+        setFont(new Font("SansSerif", Font.PLAIN, 18));
+        setFocusable(true);
+    }
+
+    /**
+     * Handles the mouse press event by sending a command to the game loop.
+     * The event may also come from the canvas of an {@link ActiveRenderer}.
+     *
+     * @param e The mouse event.
+     */
+    void handleMousePress(MouseEvent e) {
+        if (state.gameOver) {
+            loop.submit(Command.newGame());
+        } else {
+            int selectedRoom = getSelectedRoom(e);
+            if (selectedRoom != -1) {
+                handleRoomSelection(e, selectedRoom);
+            }
+        }
+    }
+
+    /**
+     * Shows a result published by the game loop. Runs on the Event Dispatch Thread.
+     *
+     * @param result The result to show.
+     */
+    private void showResult(TurnResult result) {
+        state = result;
+        messages.addAll(result.messages);
+        repaint();
+        if (result.request == TurnResult.Request.NAME) {
+            loop.submit(Command.start(askPlayerName()));
+        } else if (result.request == TurnResult.Request.QUIZ) {
+            loop.submit(Command.answer(askQuiz(result)));
+        }
+        showMessageDialog();
+    }
+
+    /**
+     * Shows a message dialog with the messages in the log, one per line.
+     * Without a display the messages stay in the log.
+     */
+    private void showMessageDialog() {
+        if (!messages.isEmpty() && !GraphicsEnvironment.isHeadless()) {
+            Object[] lines = new Object[messages.size()];
+            for (int i = 0; i < lines.length; i++)
+                lines[i] = messages.get(i).getText();
+            JOptionPane.showMessageDialog(this, lines,
+                    state.playerName, JOptionPane.INFORMATION_MESSAGE);
+            messages.clear(); // Clear the messages
+        }
+    }
+
+    /**
+     * Returns the index of the room selected by the player.
+     *
+     * @param e The mouse event.
+     * @return The index of the selected room.
+     */
+    private int getSelectedRoom(MouseEvent e) {
+        int mouseX = e.getX();
+        int mouseY = e.getY();
+        GameMap map = engine.getMap();
+        int currRoom = state.currRoom;
+        for (int i = map.linkStart(currRoom), end = map.linkEnd(currRoom); i < end; i++) {
+            int link = map.linkTarget(i);
+            int frameX = map.x(link);
+            int frameY = map.y(link);
+            if (insideRoom(mouseX, mouseY, frameX, frameY)) {
+                return link;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Handles the selection of a room.
+     *
+     * @param e The mouse event.
+     * @param selectedRoom The index of the selected room.
+     */
+    private void handleRoomSelection(MouseEvent e, int selectedRoom) {
+        lastTarget = selectedRoom;
+        if (isLeftMouseButton(e)) {
+            loop.submit(Command.move(selectedRoom));
+        } else if (isRightMouseButton(e)) {
+            loop.submit(Command.throwNet(selectedRoom));
+        }
+    }
+
+    /**
+     * Checks if the given coordinates are inside the room.
+     *
+     * @param mouseX The x-coordinate of the mouse.
+     * @param mouseY The y-coordinate of the mouse.
+     * @param frameX The x-coordinate of the room.
+     * @param frameY The y-coordinate of the room.
+     * @return True if the mouse is inside the room, false otherwise.
+     */
+    private boolean insideRoom(int mouseX, int mouseY, int frameX, int frameY) {
+        return ((mouseX > frameX && mouseX < frameX + roomSize)
+                && (mouseY > frameY && mouseY < frameY + roomSize));
+    }
+
+    /**
+     * Starts a new game and waits until the game loop has started it.
+     */
+    public void startNewGame() {
+        String playerName = askPlayerName();
+        messages.clear();
+        try {
+            state = loop.call(Command.start(playerName));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Asks the player for a name, or uses a default name when there is no display.
+     *
+     * @return The name of the player.
+     */
+    private String askPlayerName() {
+        if (GraphicsEnvironment.isHeadless())
+            return defaultPlayerName;
+        return JOptionPane.showInputDialog(
+                this, "Please enter your name:",
+                "Player Name", JOptionPane.QUESTION_MESSAGE);
+    }
+
+    /**
+     * Lets the player answer the Tomte's quiz question.
+     *
+     * @param result The result with the question.
+     * @return The index of the chosen option, or -1 if the dialog was closed or there is no display.
+     */
+    private int askQuiz(TurnResult result) {
+        if (GraphicsEnvironment.isHeadless())
+            return -1;
+        String[] optionsArray = result.getQuizOptions();
+        return JOptionPane.showOptionDialog(this, result.quizQuestion, "Quizmaster",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, optionsArray, optionsArray[0]);
+    }
+
+    /**
+     * Paints the game components.
+     *
+     * @param gg The graphics context.
+     */
+    @Override
+    public void paintComponent(Graphics gg) {
+        super.paintComponent(gg);
+        if (gameGraphics == null) {
+            // A cheap first frame: the background, without fonts or the map
+            StartupTimer.firstPaint();
+            return;
+        }
+        Graphics2D g = (Graphics2D) gg;
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+
+        GameEvents.Paint event = null;
+        if (paintType.isEnabled()) {
+            event = new GameEvents.Paint();
+            event.begin();
+        }
+        long paintStart = Metrics.start();
+        long start = paintStart;
+        gameGraphics.drawRooms(g);
+        Metrics.stop(Metrics.Timer.DRAW_ROOMS, start);
+        start = Metrics.start();
+        if (state.gameOver) {
+            gameGraphics.drawStartScreen(g);
+            Metrics.stop(Metrics.Timer.DRAW_START_SCREEN, start);
+        } else {
+            gameGraphics.drawPlayer(g);
+            Metrics.stop(Metrics.Timer.DRAW_PLAYER, start);
+        }
+        start = Metrics.start();
+        gameGraphics.drawMessage(g);
+        Metrics.stop(Metrics.Timer.DRAW_MESSAGE, start);
+        Metrics.stop(Metrics.Timer.PAINT, paintStart);
+        if (event != null && event.shouldCommit()) {
+            event.gameOver = state.gameOver;
+            event.room = state.currRoom;
+            event.commit();
+        }
+        StartupTimer.interactive();
+    }
+}
+
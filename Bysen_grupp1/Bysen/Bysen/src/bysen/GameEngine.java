@@ -0,0 +1,693 @@
+package bysen;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+import jdk.jfr.EventType;
+
+/**
+ * The game engine holds the game rules and state, without any user interface.
+ * Moves, net throws and quiz answers return an {@link Outcome} and add messages
+ * that a view can show to the player.
+ */
+public class GameEngine {
+    static final int[] defaultCreatureDistribution = {0, 1, 1, 1, 2, 2, 3, 4, 4};
+    static final int defaultNets = 3;
+    static final int defaultMinCreatureDistance = 2;
+    private static final Creatures[] creatureValues = Creatures.values();
+
+    private final RandomGenerator rand;
+    private int[] creatureDistribution = defaultCreatureDistribution;
+    private int startingNets = defaultNets;
+    private int minCreatureDistance = defaultMinCreatureDistance;
+
+    //Game state variables
+    String playerName;
+    boolean gameOver = true;
+    int currRoom, numNets, creatureRoom;
+    int turns, netsThrown; // in the current game
+    private final MessageLog messages = new MessageLog();
+    final CreatureBoard creatures;
+    final WarningIndex warnings;
+    private final RoomSampler sampler;
+    private Wanderers wanderers; // null unless the creatures wander
+    private int bysen = -1; // Bysen's id among the wanderers
+    int questionIndex = -1;
+    // The events are only created while a recording is running. Otherwise a method that once
+    // committed an event keeps allocating one per call, since the JIT cannot drop it.
+    private static final EventType newGameType = EventType.getEventType(GameEvents.NewGame.class);
+    private static final EventType moveType = EventType.getEventType(GameEvents.Move.class);
+    private static final EventType netThrowType = EventType.getEventType(GameEvents.NetThrow.class);
+    private static final EventType vittraType = EventType.getEventType(GameEvents.VittraTeleport.class);
+    private static final EventType quizType = EventType.getEventType(GameEvents.Quiz.class);
+    private GameEvents.Quiz quizEvent; // only while a quiz is pending and a recording is running
+
+    //Quiz questions, and the ones asked since the engine was reset
+    private QuizBank quizBank = QuizBank.builtIn;
+    private final BitSet askedQuestions = new BitSet(QuizBank.builtIn.size());
+    private int askedCount;
+
+    //Map
+    final GameMap map;
+
+    //Constructors
+    public GameEngine() {
+        this(new Random());
+    }
+
+    public GameEngine(RandomGenerator rand) {
+        this(GameMap.dodecahedron(), rand);
+    }
+
+    public GameEngine(GameMap map, RandomGenerator rand) {
+        this.map = Objects.requireNonNull(map, "Map cannot be null");
+        this.rand = Objects.requireNonNull(rand, "Random generator cannot be null");
+        this.warnings = new WarningIndex(map);
+        this.creatures = new CreatureBoard(map.getRoomCount(), warnings);
+        this.sampler = new RoomSampler(map, creatures, rand);
+    }
+
+    /**
+     * Returns the longest start of a player name that fits in the given number of bytes of
+     * UTF-8, cut between code points, for files that keep names in a fixed space.
+     */
+    static String shortenName(String name, int maxBytes) {
+        int bytes = 0;
+        for (int i = 0; i < name.length(); ) {
+            int codePoint = name.codePointAt(i);
+            bytes += codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (bytes > maxBytes)
+                return name.substring(0, i);
+            i += Character.charCount(codePoint);
+        }
+        return name;
+    }
+
+    //Getters
+    public String getPlayerName() {
+        return playerName;
+    }
+    public boolean isGameOver() {
+        return gameOver;
+    }
+    public int getCurrRoom() {
+        return currRoom;
+    }
+    public int getNumNets() {
+        return numNets;
+    }
+    /**
+     * Returns the number of moves and net throws in the current game.
+     */
+    public int getTurns() {
+        return turns;
+    }
+    public int getNetsThrown() {
+        return netsThrown;
+    }
+    public int getCreatureRoom() {
+        return creatureRoom;
+    }
+    public boolean hasCreature(int room, Creatures creature) {
+        return creatures.contains(room, creature);
+    }
+    public GameMap getMap() {
+        return map;
+    }
+
+    /**
+     * Sets which creatures are placed at the start of a game, one ordinal per creature.
+     *
+     * @param creatureDistribution The ordinals of the creatures to place.
+     */
+    public void setCreatureDistribution(int[] creatureDistribution) {
+        checkCreatureDistribution(creatureDistribution);
+        this.creatureDistribution = creatureDistribution.clone();
+    }
+
+    /**
+     * Checks that a creature distribution only has known creatures and exactly one Bysen.
+     *
+     * @param creatureDistribution The ordinals of the creatures to place.
+     */
+    static void checkCreatureDistribution(int[] creatureDistribution) {
+        if (creatureDistribution == null)
+            throw new NullPointerException("Creature distribution cannot be null");
+        int bysen = 0;
+        for (int ord : creatureDistribution) {
+            if (ord < 0 || ord >= Creatures.values().length)
+                throw new IllegalArgumentException("Unknown creature ordinal: " + ord);
+            if (ord == Creatures.Bysen.ordinal())
+                bysen++;
+        }
+        if (bysen != 1)
+            throw new IllegalArgumentException("Creature distribution must contain exactly one Bysen");
+    }
+
+    /**
+     * Sets the questions the Tomte asks. The bank may be shared with other engines.
+     *
+     * @param quizBank The questions.
+     */
+    public void setQuizBank(QuizBank quizBank) {
+        if (quizBank == null)
+            throw new NullPointerException("Quiz bank cannot be null");
+        if (quizBank.size() == 0)
+            throw new IllegalArgumentException("Quiz bank cannot be empty");
+        this.quizBank = quizBank;
+        askedQuestions.clear();
+        askedCount = 0;
+        questionIndex = -1;
+    }
+    public QuizBank getQuizBank() {
+        return quizBank;
+    }
+
+    /**
+     * Sets the number of nets the player starts with.
+     *
+     * @param startingNets The number of nets, at least one.
+     */
+    public void setStartingNets(int startingNets) {
+        if (startingNets < 1)
+            throw new IllegalArgumentException("Starting nets must be at least 1");
+        this.startingNets = startingNets;
+    }
+
+    /**
+     * Sets how many links away from the player's first room the creatures are placed at
+     * the start of a game. The default, 2, keeps them out of the room and the rooms linked
+     * to it, so the player hears nothing on the first turn.
+     *
+     * @param minCreatureDistance The distance, at least 0.
+     */
+    public void setMinCreatureDistance(int minCreatureDistance) {
+        if (minCreatureDistance < 0)
+            throw new IllegalArgumentException("Min creature distance cannot be negative");
+        this.minCreatureDistance = minCreatureDistance;
+    }
+    public int getMinCreatureDistance() {
+        return minCreatureDistance;
+    }
+
+    /**
+     * Lets the creatures wander on their own, see {@link Wanderers}. Every move and net
+     * throw first moves the creatures that are due, then resolves the player's action.
+     * No creature wanders into the player's room or comes to a room linked to it, so a
+     * creature the player walks into was warned about on the turn before. The creatures on the
+     * board are taken over at once.
+     *
+     * @param wandering True to let the creatures wander, false to keep them in place.
+     */
+    public void setWandering(boolean wandering) {
+        if (!wandering) {
+            wanderers = null;
+            bysen = -1;
+        } else if (wanderers == null) {
+            wanderers = new Wanderers(map, creatures, rand);
+            adoptCreatures();
+        }
+    }
+
+    /**
+     * Returns the wandering creatures, or null if the creatures do not wander.
+     */
+    public Wanderers getWanderers() {
+        return wanderers;
+    }
+
+    /**
+     * Hands the creatures on the board to the wanderers, if the creatures wander.
+     * Called when the board has been filled or loaded.
+     */
+    void adoptCreatures() {
+        if (wanderers == null)
+            return;
+        wanderers.adopt();
+        bysen = creatures.contains(creatureRoom, Creatures.Bysen) ? wanderers.find(creatureRoom, Creatures.Bysen) : -1;
+    }
+
+    /**
+     * Moves the creatures that are due, if the creatures wander.
+     */
+    private void wander() {
+        if (wanderers == null)
+            return;
+        wanderers.setPlayerRoom(currRoom);
+        wanderers.tick();
+        if (bysen != -1)
+            creatureRoom = wanderers.room(bysen);
+    }
+
+    /**
+     * Returns the warnings heard in the player's current room as a mask with one bit per creature ordinal.
+     */
+    public int getWarnings() {
+        return warnings.warnings(currRoom);
+    }
+
+    /**
+     * Returns true if the creature's warning can be heard from the player's current room.
+     *
+     * @param creature The creature to listen for.
+     */
+    public boolean isWarned(Creatures creature) {
+        return has(warnings.warnings(currRoom), creature);
+    }
+
+    /**
+     * Returns the messages added since they were last cleared.
+     */
+    public MessageLog getMessages() {
+        return messages;
+    }
+    public void clearMessages() {
+        messages.clear();
+    }
+
+    /**
+     * Starts a new game.
+     *
+     * @param playerName The name of the player.
+     */
+    public void startNewGame(String playerName) {
+        GameEvents.NewGame event = null;
+        if (newGameType.isEnabled()) {
+            event = new GameEvents.NewGame();
+            event.begin();
+        }
+        this.playerName = playerName;
+        resetGameVariables();
+        initializeCreatures();
+        distributeCreatures();
+        adoptCreatures();
+        gameOver = false;
+        if (event != null && event.shouldCommit()) {
+            event.roomCount = map.getRoomCount();
+            event.startRoom = currRoom;
+            event.bysenRoom = creatureRoom;
+            event.trolls = creatures.word(Creatures.Troll, 0);
+            event.vittror = creatures.word(Creatures.Vittra, 0);
+            event.vättar = creatures.word(Creatures.Vätte, 0);
+            event.tomtar = creatures.word(Creatures.Tomte, 0);
+            event.commit();
+        }
+    }
+
+    /**
+     * Ends any running game and empties the board, so the engine can be reused for another
+     * player. Nothing is allocated; all state is cleared in place.
+     */
+    public void reset() {
+        gameOver = true;
+        playerName = null;
+        questionIndex = -1;
+        quizEvent = null;
+        askedQuestions.clear();
+        askedCount = 0;
+        numNets = 0;
+        turns = netsThrown = 0;
+        creatures.clear();
+        adoptCreatures();
+        messages.clear();
+    }
+
+    /**
+     * Resets the game variables to their initial state.
+     */
+    private void resetGameVariables() {
+        numNets = startingNets;
+        turns = netsThrown = 0;
+        currRoom = rand.nextInt(map.getRoomCount());
+        questionIndex = -1;
+        messages.clear();
+    }
+
+    /**
+     * Removes the creatures of the previous game.
+     */
+    private void initializeCreatures() {
+        creatures.clear();
+    }
+
+    /**
+     * Distributes the creatures among the rooms.
+     */
+    private void distributeCreatures() {
+        for (int ord : creatureDistribution) {
+            int room = getAvailableRoom(ord);
+            if (room == -1) {
+                if (ord == 0)
+                    throw new IllegalStateException("There is no room left for Bysen");
+                continue; // the map is full, this creature is left out
+            }
+            if (ord == 4) {
+                creatures.clearRoom(room); // clear any existing creatures in the room
+                creatures.add(room, creatureValues[ord]);
+            } else {
+                creatures.add(room, creatureValues[ord]);
+                if (ord == 0)
+                    creatureRoom = room;
+            }
+        }
+    }
+
+    /**
+     * Returns a random room that is at least the min creature distance from the player's current room.
+     *
+     * @param ord The ordinal of the creature to be placed in the room.
+     * @return The index of the available room, or -1 if there is none.
+     */
+    private int getAvailableRoom(int ord) {
+        return sampler.sample(creatureValues[ord], currRoom, minCreatureDistance);
+    }
+
+    /**
+     * Moves the player to a linked room.
+     *
+     * @param room The index of the room to move to.
+     * @return The outcome of the move, or INVALID if the move is not allowed.
+     */
+    public Outcome move(int room) {
+        if (gameOver || questionIndex != -1 || !map.isLinked(currRoom, room))
+            return Outcome.INVALID;
+        GameEvents.Move event = null;
+        if (moveType.isEnabled()) {
+            event = new GameEvents.Move();
+            event.begin();
+        }
+        turns++;
+        wander();
+        int fromRoom = currRoom;
+        currRoom = room;
+        Outcome outcome = handleRoomSituation();
+        if (event != null && event.shouldCommit()) {
+            event.fromRoom = fromRoom;
+            event.toRoom = room;
+            event.roomAfter = currRoom;
+            event.outcome = outcome.name();
+            event.commit();
+        }
+        return outcome;
+    }
+
+    /**
+     * Handles the situation when the player enters a room.
+     */
+    private Outcome handleRoomSituation() {
+        int mask = creatures.roomMask(currRoom);
+        if (has(mask, Creatures.Bysen)) {
+            return handleBysen();
+        } else if (has(mask, Creatures.Troll)) {
+            return handleTroll();
+        } else if (has(mask, Creatures.Vittra)) {
+            return handleVittra();
+        } else if (has(mask, Creatures.Vätte)){
+            return handleVätte();
+        } else if (has(mask, Creatures.Tomte)){
+            return handleTomte();
+        } else {
+            return exploreRoom();
+        }
+    }
+
+    /**
+     * Handles the situation when the player encounters Bysen.
+     */
+    private Outcome handleBysen() {
+        messages.add(Message.LOST_TO_BYSEN);
+        return endGame(Outcome.LOST_TO_BYSEN);
+    }
+
+    /**
+     * Handles the situation when the player encounters a Troll.
+     */
+    private Outcome handleTroll() {
+        messages.add(Message.FELL_INTO_TROLL_RING);
+        return endGame(Outcome.FELL_INTO_TROLL_RING);
+    }
+
+    /**
+     * Handles the situation when the player encounters a Vittra.
+     */
+    private Outcome handleVittra() {
+        GameEvents.VittraTeleport event = null;
+        if (vittraType.isEnabled()) {
+            event = new GameEvents.VittraTeleport();
+            event.begin();
+        }
+        messages.add(Message.VITTRA_TELEPORT);
+        int vittraRoom = currRoom;
+        if (!movePlayerAwayFromVittra())
+            return exploreRoom(); // every room has a Vittra, there is nowhere to send the player
+        int newVittraRoom = moveVittraToNewRoom(vittraRoom);
+        if (event != null && event.shouldCommit()) {
+            event.vittraRoom = vittraRoom;
+            event.playerRoom = currRoom;
+            event.newVittraRoom = newVittraRoom;
+            event.commit();
+        }
+        return handleRoomSituation(); // re-evaluate the situation
+    }
+
+    /**
+     * Moves the player to a random room without a Vittra.
+     *
+     * @return False if every room has a Vittra.
+     */
+    private boolean movePlayerAwayFromVittra() {
+        int room = sampler.sample(Creatures.Vittra, -1, 0);
+        if (room == -1)
+            return false;
+        currRoom = room;
+        return true;
+    }
+
+    /**
+     * Moves the Vittra to a random room without a Vittra, other than the player's.
+     * The Vittra stays if there is no such room.
+     *
+     * @return The room the Vittra is in afterwards.
+     */
+    private int moveVittraToNewRoom(int vittraRoom) {
+        int newRoom = sampler.sample(Creatures.Vittra, currRoom, 1);
+        if (newRoom == -1)
+            return vittraRoom;
+        if (wanderers != null)
+            wanderers.move(wanderers.find(vittraRoom, Creatures.Vittra), newRoom);
+        else
+            creatures.move(Creatures.Vittra, vittraRoom, newRoom);
+        return newRoom;
+    }
+
+    /**
+     * Handles the situation when the player encounters a Vätte.
+     */
+    private Outcome handleVätte(){
+        messages.add(Message.GOT_SICK);
+        return endGame(Outcome.GOT_SICK);
+    }
+
+    /**
+     * Handles the situation when the player encounters a Tomte.
+     * The quiz question is kept until {@link #answerQuiz(int)} is called.
+     */
+    private Outcome handleTomte(){
+        questionIndex = nextQuestion();
+        if (quizType.isEnabled()) {
+            quizEvent = new GameEvents.Quiz();
+            quizEvent.begin();
+        }
+        return Outcome.QUIZ;
+    }
+
+    /**
+     * Picks a random question that has not been asked since the engine was reset. When all
+     * have been asked, they can all be asked again.
+     */
+    private int nextQuestion() {
+        int size = quizBank.size();
+        if (askedCount >= size) {
+            askedQuestions.clear();
+            askedCount = 0;
+        }
+        int index = askedQuestions.nextClearBit(rand.nextInt(size));
+        if (index >= size)
+            index = askedQuestions.nextClearBit(0);
+        askedQuestions.set(index);
+        askedCount++;
+        return index;
+    }
+
+    /**
+     * Returns true if the Tomte is waiting for an answer.
+     */
+    public boolean isQuizPending() {
+        return questionIndex != -1;
+    }
+    public String getQuizQuestion() {
+        return quizBank.question(questionIndex).getText();
+    }
+    public String[] getQuizOptions() {
+        return quizBank.question(questionIndex).getOptions();
+    }
+    public int getQuizOptionCount() {
+        return quizBank.question(questionIndex).getOptionCount();
+    }
+
+    /**
+     * Answers the pending quiz question.
+     *
+     * @param answer The index of the chosen option, or -1 if no option was chosen.
+     * @return The outcome of the answer, or INVALID if no quiz is pending.
+     */
+    public Outcome answerQuiz(int answer) {
+        if (questionIndex == -1)
+            return Outcome.INVALID;
+        Outcome outcome;
+        Question question = quizBank.question(questionIndex);
+        if (answer == question.getCorrectAnswer()) {
+            messages.add(Message.QUIZ_RIGHT);
+            numNets++;
+            outcome = Outcome.QUIZ_RIGHT;
+        } else {
+            messages.add(Message.QUIZ_WRONG);
+            outcome = Outcome.QUIZ_WRONG;
+        }
+        if (quizEvent != null) {
+            quizEvent.room = currRoom;
+            quizEvent.question = question.getText();
+            quizEvent.answer = answer;
+            quizEvent.correct = outcome == Outcome.QUIZ_RIGHT;
+            quizEvent.commit();
+            quizEvent = null;
+        }
+        questionIndex = -1;
+        if (wanderers != null)
+            wanderers.remove(wanderers.find(currRoom, Creatures.Tomte));
+        else
+            creatures.remove(currRoom, Creatures.Tomte);
+        return outcome;
+    }
+
+    /**
+     * Explores the current room.
+     */
+    private Outcome exploreRoom() {
+        int mask = warnings.warnings(currRoom);
+        for (Creatures creature : creatureValues)
+            if (has(mask, creature))
+                messages.add(Message.warning(creature));
+        return Outcome.EXPLORED;
+    }
+
+    /**
+     * Throws a net at the given room.
+     *
+     * @param room The index of the room to throw the net at.
+     * @return The outcome of the throw, or INVALID if the throw is not allowed.
+     */
+    public Outcome throwNet(int room) {
+        if (gameOver || questionIndex != -1 || !map.isLinked(currRoom, room))
+            return Outcome.INVALID;
+        GameEvents.NetThrow event = null;
+        if (netThrowType.isEnabled()) {
+            event = new GameEvents.NetThrow();
+            event.begin();
+        }
+        turns++;
+        netsThrown++;
+        wander();
+        int bysenBefore = creatureRoom;
+        Outcome outcome;
+        if (creatures.contains(room, Creatures.Bysen)) {
+            outcome = catchBysen();
+        } else {
+            outcome = handleNetThrow();
+        }
+        if (event != null && event.shouldCommit()) {
+            event.playerRoom = currRoom;
+            event.targetRoom = room;
+            event.bysenBefore = bysenBefore;
+            event.bysenAfter = creatureRoom;
+            event.netsLeft = numNets;
+            event.outcome = outcome.name();
+            event.commit();
+        }
+        return outcome;
+    }
+
+    /**
+     * Handles the situation when the player catches Bysen.
+     */
+    private Outcome catchBysen() {
+        messages.add(Message.CAUGHT_BYSEN);
+        return endGame(Outcome.CAUGHT_BYSEN);
+    }
+
+    /**
+     * Handles the situation when the player throws a net.
+     */
+    private Outcome handleNetThrow() {
+        numNets--;
+        if (numNets == 0) {
+            return outOfNets();
+        } else if (rand.nextInt(4) != 0) { // 75 %
+            return moveBysen();
+        }
+        return Outcome.BYSEN_STAYED;
+    }
+
+    /**
+     * Handles the situation when the player runs out of nets.
+     */
+    private Outcome outOfNets() {
+        messages.add(Message.OUT_OF_NETS);
+        return endGame(Outcome.OUT_OF_NETS);
+    }
+
+    /**
+     * Moves Bysen to a new room.
+     */
+    private Outcome moveBysen() {
+        int from = creatureRoom;
+        creatureRoom = map.link(creatureRoom, rand.nextInt(map.degree(creatureRoom)));
+        if (wanderers == null)
+            creatures.remove(from, Creatures.Bysen);
+        else if (bysen == -1)
+            bysen = wanderers.spawn(Creatures.Bysen, creatureRoom); // Bysen was not on the board
+        else
+            wanderers.move(bysen, creatureRoom);
+
+        if (creatureRoom == currRoom) {
+            return wakeUpBysen();
+        } else {
+            return bysenEscapes();
+        }
+    }
+
+    /**
+     * Handles the situation when Bysen is woken up.
+     */
+    private Outcome wakeUpBysen() {
+        messages.add(Message.BYSEN_WOKE);
+        return endGame(Outcome.BYSEN_WOKE);
+    }
+
+    /**
+     * Handles the situation when Bysen escapes.
+     */
+    private Outcome bysenEscapes() {
+        messages.add(Message.BYSEN_ESCAPED);
+        creatures.add(creatureRoom, Creatures.Bysen);
+        return Outcome.BYSEN_ESCAPED;
+    }
+
+    private static boolean has(int mask, Creatures creature) {
+        return (mask & (1 << creature.ordinal())) != 0;
+    }
+
+    private Outcome endGame(Outcome outcome) {
+        gameOver = true;
+        return outcome;
+    }
+}
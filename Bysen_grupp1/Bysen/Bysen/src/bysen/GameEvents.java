@@ -0,0 +1,114 @@
+package bysen;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder events for game turns and rendering. Every event has a duration and
+ * shows up under "Bysen" in JDK Mission Control. The events are only created while their
+ * type is enabled, so they cost next to nothing when no recording is running. Escape
+ * analysis alone is not enough: once a method has committed an event, the JIT keeps
+ * allocating the event on every call.
+ */
+final class GameEvents {
+    private GameEvents() {
+    }
+
+    @Name("bysen.NewGame")
+    @Label("New Game")
+    @Category("Bysen")
+    @Description("A new game has started and the creatures have been placed")
+    static final class NewGame extends Event {
+        @Label("Rooms")
+        int roomCount;
+        @Label("Start Room")
+        int startRoom;
+        @Label("Bysen Room")
+        int bysenRoom;
+        @Label("Trolls")
+        @Description("Rooms 0-63 that hold a Troll, one bit per room")
+        long trolls;
+        @Label("Vittror")
+        @Description("Rooms 0-63 that hold a Vittra, one bit per room")
+        long vittror;
+        @Label("Vättar")
+        @Description("Rooms 0-63 that hold a Vätte, one bit per room")
+        long vättar;
+        @Label("Tomtar")
+        @Description("Rooms 0-63 that hold a Tomte, one bit per room")
+        long tomtar;
+    }
+
+    @Name("bysen.Move")
+    @Label("Move")
+    @Category("Bysen")
+    static final class Move extends Event {
+        @Label("From Room")
+        int fromRoom;
+        @Label("To Room")
+        int toRoom;
+        @Label("Room After")
+        @Description("The player's room after the move, which differs from To Room after a Vittra teleport")
+        int roomAfter;
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("bysen.NetThrow")
+    @Label("Net Throw")
+    @Category("Bysen")
+    static final class NetThrow extends Event {
+        @Label("Player Room")
+        int playerRoom;
+        @Label("Target Room")
+        int targetRoom;
+        @Label("Bysen Room Before")
+        int bysenBefore;
+        @Label("Bysen Room After")
+        int bysenAfter;
+        @Label("Nets Left")
+        int netsLeft;
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("bysen.VittraTeleport")
+    @Label("Vittra Teleport")
+    @Category("Bysen")
+    static final class VittraTeleport extends Event {
+        @Label("Vittra Room")
+        int vittraRoom;
+        @Label("Player Room After")
+        int playerRoom;
+        @Label("Vittra Room After")
+        int newVittraRoom;
+    }
+
+    @Name("bysen.Quiz")
+    @Label("Quiz")
+    @Category("Bysen")
+    @Description("From the Tomte's question to the player's answer")
+    static final class Quiz extends Event {
+        @Label("Room")
+        int room;
+        @Label("Question")
+        String question;
+        @Label("Answer")
+        int answer;
+        @Label("Correct")
+        boolean correct;
+    }
+
+    @Name("bysen.Paint")
+    @Label("Paint")
+    @Category("Bysen")
+    static final class Paint extends Event {
+        @Label("Game Over")
+        boolean gameOver;
+        @Label("Room")
+        int room;
+    }
+}
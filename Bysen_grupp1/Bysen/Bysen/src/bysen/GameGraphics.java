@@ -0,0 +1,518 @@
+package bysen;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * GameGraphics handles the graphics in the view. Fonts, strokes, colours and laid-out text
+ * are cached, so a frame only measures text that has changed. The caches can be filled
+ * ahead of the first paint with {@link #prepare}.
+ */
+public class GameGraphics {
+    static final String messageSeparator = " & ";
+    static final String lineSeparator = "& ";
+    static final String netsLabel = "Nät kvar:  ";
+    static final String title = "Fånga Bysen!";
+    static final String[] startScreenLines = {
+            "Vänsterklicka för att flytta, Högerklicka för att skjuta",
+            "Var försiktig väsen kan befinna sig i samma rum som du",
+            "Klicka för att starta"};
+
+    //Render resources
+    private static final Font titleFont = new Font("SansSerif", Font.BOLD, 48);
+    private static final Color startScreenBackground = new Color(0xDDFFFFFF, true);
+    private static final BasicStroke[] strokes = {new BasicStroke(0), new BasicStroke(1), new BasicStroke(2)};
+    private static final String[] numbers = new String[100];
+    static final int maxTextsPerFont = 256;
+
+    private final GameView view;
+
+    //Cached map layer
+    private BufferedImage mapLayer;
+    private GameMap mapLayerMap;
+    private Color mapLayerBackground;
+
+    //Cached text, by font and then by string identity
+    private final Map<Font, Map<String, Text>> texts = new HashMap<>();
+    private FontRenderContext textContext;
+
+    //Cached player shape
+    private Path2D playerShape;
+    private int playerShapeRoom = -1;
+
+    /**
+     * A string laid out in a font, with the width FontMetrics gives it.
+     */
+    static final class Text {
+        final GlyphVector glyphs;
+        final int width;
+
+        Text(GlyphVector glyphs, int width) {
+            this.glyphs = glyphs;
+            this.width = width;
+        }
+    }
+
+    /**
+     * @param view The view to draw, for example the {@link Game} panel.
+     */
+    public GameGraphics(GameView view) {
+        if (view == null)
+            throw new NullPointerException("View cannot be null");
+        this.view = view;
+    }
+
+    /**
+     * Calculates the player's position in the room.
+     * @param room The room the player is in.
+     * @param roomSize The size of the room.
+     * @param playerSize The size of the player.
+     * @return The player's position.
+     */
+    public Point calculatePlayerPosition(Room room, int roomSize, int playerSize) {
+        return calculatePlayerPosition(room.x, room.y, roomSize, playerSize);
+    }
+
+    /**
+     * Calculates the player's position in the room.
+     * @param roomX The x-coordinate of the room the player is in.
+     * @param roomY The y-coordinate of the room the player is in.
+     * @param roomSize The size of the room.
+     * @param playerSize The size of the player.
+     * @return The player's position.
+     */
+    public Point calculatePlayerPosition(int roomX, int roomY, int roomSize, int playerSize) {
+        int x = roomX + (roomSize - playerSize) / 2;
+        int y = roomY + (roomSize - playerSize) - 2;
+        return new Point(x, y);
+    }
+
+    /**
+     * Creates the player's shape.
+     * @param x The x-coordinate of the player.
+     * @param y The y-coordinate of the player.
+     * @param playerSize The size of the player.
+     * @return The player's shape.
+     */
+    public Path2D createPlayerShape(int x, int y, int playerSize) {
+        Path2D player = new Path2D.Double();
+        player.moveTo(x, y);
+        player.lineTo(x + playerSize, y);
+        player.lineTo(x + playerSize / 2, y - playerSize);
+        player.closePath();
+        return player;
+    }
+
+    /**
+     * Draws the player.
+     * @param g The graphics object.
+     */
+    public void drawPlayer(Graphics2D g) {
+        drawPlayer(g, view.getState().currRoom, 0, 0);
+    }
+
+    /**
+     * Draws the player in a room, moved by an offset. Used to animate moves.
+     * @param g The graphics object.
+     * @param room The room.
+     * @param dx The horizontal offset.
+     * @param dy The vertical offset.
+     */
+    public void drawPlayer(Graphics2D g, int room, double dx, double dy) {
+        if (playerShapeRoom != room) {
+            GameMap map = view.getMap();
+            Point position = calculatePlayerPosition(map.x(room), map.y(room),
+                    GameView.roomSize, GameView.playerSize);
+            playerShape = createPlayerShape(position.x, position.y, GameView.playerSize);
+            playerShapeRoom = room;
+        }
+
+        g.translate(dx, dy);
+        g.setColor(Color.white);
+        g.fill(playerShape);
+        g.setStroke(stroke(1));
+        g.setColor(Color.black);
+        g.draw(playerShape);
+        g.translate(-dx, -dy);
+    }
+
+    /**
+     * Draws the game over screen.
+     * @param g The graphics object.
+     */
+    private void drawBackground(Graphics2D g, int width, int height) {
+        g.setColor(startScreenBackground);
+        g.fillRect(0, 0, width, height - 60);
+    }
+
+    /**
+     * Draws the title of the view.
+     * @param g The graphics object.
+     * @param title The title of the view.
+     * @param width The width of the view.
+     */
+    private void drawTitle(Graphics2D g, String title, int width) {
+        g.setColor(Color.darkGray);
+        Text text = text(g, titleFont, title);
+        g.drawGlyphVector(text.glyphs, (width - text.width) / 2, 240);
+    }
+
+    /**
+     * Draws a string centered on the screen.
+     * @param g The graphics object.
+     * @param text The text to draw.
+     * @param width The width of the view.
+     * @param y The y-coordinate of the text.
+     */
+    private void drawCenteredString(Graphics2D g, String text, int width, int y) {
+        Text laidOut = text(g, view.getFont(), text);
+        g.drawGlyphVector(laidOut.glyphs, (width - laidOut.width) / 2, y);
+    }
+
+    /**
+     * Draws the start screen.
+     * @param g The graphics object.
+     */
+    public void drawStartScreen(Graphics2D g) {
+        int width = view.getWidth();
+        int height = view.getHeight();
+
+        drawBackground(g, width, height);
+
+        drawTitle(g, title, width);
+
+        for (int i = 0; i < startScreenLines.length; i++)
+            drawCenteredString(g, startScreenLines[i], width, 310 + 35 * i);
+    }
+
+    /**
+     * Sets the drawing style.
+     * @param g The graphics object.
+     * @param color The color to draw with.
+     * @param strokeSize The size of the stroke.
+     */
+    private void setDrawingStyle(Graphics2D g, Color color, int strokeSize) {
+        g.setColor(color);
+        g.setStroke(stroke(strokeSize));
+    }
+
+    /**
+     * Returns a stroke of the given width, shared for the common widths.
+     */
+    static BasicStroke stroke(int width) {
+        return width < strokes.length ? strokes[width] : new BasicStroke(width);
+    }
+
+    /**
+     * Returns the text laid out in the font, measuring it only the first time it is drawn.
+     * Strings are looked up by identity, so the cache is meant for constant strings. It
+     * holds at most {@value #maxTextsPerFont} strings per font and is emptied when it is
+     * full, so strings built for one frame cannot fill it up. It is also emptied when the
+     * font render context changes.
+     * @param g The graphics object the text will be drawn on.
+     * @param font The font.
+     * @param string The string.
+     * @return The laid-out text.
+     */
+    Text text(Graphics2D g, Font font, String string) {
+        FontRenderContext context = g.getFontRenderContext();
+        if (!context.equals(textContext)) {
+            texts.clear();
+            textContext = context;
+        }
+        Map<String, Text> byString = texts.get(font);
+        if (byString == null) {
+            byString = new IdentityHashMap<>();
+            texts.put(font, byString);
+        }
+        Text text = byString.get(string);
+        if (text == null) {
+            text = new Text(font.createGlyphVector(context, string), g.getFontMetrics(font).stringWidth(string));
+            if (byString.size() >= maxTextsPerFont)
+                byString.clear();
+            byString.put(string, text);
+        }
+        return text;
+    }
+
+    /**
+     * Returns the number of strings in the text cache, over all fonts.
+     */
+    int getCachedTextCount() {
+        int count = 0;
+        for (Map<String, Text> byString : texts.values())
+            count += byString.size();
+        return count;
+    }
+
+    /**
+     * Returns a shared string for small numbers, so that they hit the text cache.
+     */
+    static String number(int n) {
+        if (n < 0 || n >= numbers.length)
+            return Integer.toString(n);
+        String s = numbers[n];
+        if (s == null)
+            numbers[n] = s = Integer.toString(n);
+        return s;
+    }
+
+    /**
+     * Draws a room link.
+     * @param g The graphics object.
+     * @param map The map.
+     * @param room1 The first room.
+     * @param room2 The second room.
+     */
+    private void drawRoomLink(Graphics2D g, GameMap map, int room1, int room2) {
+        int x1 = map.x(room1) + GameView.roomSize / 2;
+        int y1 = map.y(room1) + GameView.roomSize / 2;
+        int x2 = map.x(room2) + GameView.roomSize / 2;
+        int y2 = map.y(room2) + GameView.roomSize / 2;
+        g.drawLine(x1, y1, x2, y2);
+    }
+
+    /**
+     * Draws a room.
+     * @param g The graphics object.
+     * @param map The map.
+     * @param room The room to draw.
+     * @param color The color to draw the room with.
+     */
+    private void drawRoom(Graphics2D g, GameMap map, int room, Color color) {
+        g.setColor(color);
+        g.fillOval(map.x(room), map.y(room), GameView.roomSize, GameView.roomSize);
+    }
+
+    /**
+     * Draws the links of the current room.
+     * @param g The graphics object.
+     */
+    private void drawCurrentRoomLinks(Graphics2D g) {
+        TurnResult state = view.getState();
+        if (!state.gameOver) {
+            GameMap map = view.getMap();
+            int start = map.linkStart(state.currRoom);
+            int end = map.linkEnd(state.currRoom);
+            g.setColor(Color.magenta);
+            for (int i = start; i < end; i++)
+                drawRoom(g, map, map.linkTarget(i), Color.magenta);
+
+            setDrawingStyle(g, Color.darkGray, 0);
+            for (int i = start; i < end; i++)
+                drawRoomOutline(g, map, map.linkTarget(i));
+        }
+    }
+
+    /**
+     * Draws the outline of a room.
+     * @param g The graphics object.
+     * @param map The map.
+     * @param room The room to draw.
+     */
+    private void drawRoomOutline(Graphics2D g, GameMap map, int room) {
+        g.drawOval(map.x(room), map.y(room), GameView.roomSize, GameView.roomSize);
+    }
+
+    /**
+     * Draws the parts of the map that do not change during a game: links, rooms and outlines.
+     * @param g The graphics object.
+     */
+    private void drawMap(Graphics2D g) {
+        GameMap map = view.getMap();
+        setDrawingStyle(g, Color.darkGray, 2);
+
+        for (int room = 0; room < map.getRoomCount(); room++) {
+            for (int i = map.linkStart(room), end = map.linkEnd(room); i < end; i++)
+                drawRoomLink(g, map, room, map.linkTarget(i));
+        }
+
+        setDrawingStyle(g, Color.orange, 0);
+        for (int room = 0; room < map.getRoomCount(); room++)
+            drawRoom(g, map, room, Color.orange);
+
+        setDrawingStyle(g, Color.darkGray, 0);
+        for (int room = 0; room < map.getRoomCount(); room++)
+            drawRoomOutline(g, map, room);
+    }
+
+    /**
+     * Returns the cached image of the map on the panel background, rendering it again
+     * if the panel size, the background or the map has changed.
+     * @param g The graphics object the image will be drawn on.
+     * @return The cached map image, or null if the panel has no size yet.
+     */
+    private Image getMapLayer(Graphics2D g) {
+        int width = view.getWidth();
+        int height = view.getHeight();
+        if (width <= 0 || height <= 0)
+            return null;
+        if (mapLayer == null || mapLayer.getWidth() != width || mapLayer.getHeight() != height
+                || mapLayerMap != view.getMap()
+                || mapLayerBackground != view.getBackground())
+            renderMapLayer(g.getDeviceConfiguration(), g.getRenderingHints(), width, height);
+        return mapLayer;
+    }
+
+    private void renderMapLayer(GraphicsConfiguration config, Map<?, ?> hints, int width, int height) {
+        if (mapLayer != null)
+            mapLayer.flush();
+        mapLayer = config == null ? new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)
+                : config.createCompatibleImage(width, height, Transparency.OPAQUE);
+        Graphics2D layer = mapLayer.createGraphics();
+        try {
+            layer.setRenderingHints(hints);
+            layer.setColor(view.getBackground());
+            layer.fillRect(0, 0, width, height);
+            drawMap(layer);
+        } finally {
+            layer.dispose();
+        }
+        mapLayerMap = view.getMap();
+        mapLayerBackground = view.getBackground();
+    }
+
+    /**
+     * Renders the map layer and lays out the start screen and the nets label in the view's
+     * font, so the first paint does not load fonts or draw the map. It can run on any thread,
+     * as long as the graphics object is handed to the painting thread only afterwards.
+     * @param config The configuration of the screen the view will be shown on, or null to
+     *               prepare for drawing on images.
+     * @param width The width the view will have.
+     * @param height The height the view will have.
+     */
+    public void prepare(GraphicsConfiguration config, int width, int height) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Size must be at least 1x1");
+        renderMapLayer(config, Map.of(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON),
+                width, height);
+        Graphics2D g = mapLayer.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            Font font = view.getFont();
+            text(g, titleFont, title);
+            for (String line : startScreenLines)
+                text(g, font, line);
+            text(g, font, netsLabel);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Returns the cached map image, or null if there is none.
+     */
+    BufferedImage getCachedMapLayer() {
+        return mapLayer;
+    }
+
+    /**
+     * Throws away the cached map image, so it is rendered again on the next paint.
+     */
+    public void invalidateMapLayer() {
+        if (mapLayer != null)
+            mapLayer.flush();
+        mapLayer = null;
+    }
+
+    /**
+     * Draws the rooms. The map is drawn from a cached image and only the links of the
+     * current room are drawn on top of it.
+     * @param g The graphics object.
+     */
+    public void drawRooms(Graphics2D g) {
+        Image layer = getMapLayer(g);
+        if (layer != null)
+            g.drawImage(layer, 0, 0, null);
+        else
+            drawMap(g);
+
+        drawCurrentRoomLinks(g);
+
+        setDrawingStyle(g, Color.darkGray, 0);
+    }
+
+    /**
+     * Draws the number of nets remaining
+     * @param g The graphics object.
+     * @param numNets The number of nets remaining.
+     */
+    private void drawNetsRemaining(Graphics2D g, int numNets) {
+        Font font = g.getFont();
+        Text label = text(g, font, netsLabel);
+        g.drawGlyphVector(label.glyphs, 610, 30);
+        g.drawGlyphVector(text(g, font, number(numNets)).glyphs, 610 + label.width, 30);
+    }
+
+    /**
+     * Draws the first three messages on one line, joined with " & ", and the fourth on the
+     * line below. The message log never holds duplicates, and each part is drawn on its own,
+     * so no strings are built.
+     * @param g The graphics object.
+     * @param messages The messages to draw.
+     */
+    private void drawMaxFourMessages(Graphics2D g, MessageLog messages){
+        Font font = g.getFont();
+        int x = 20;
+        int y = view.getHeight() - 40;
+        for (int i = 0; i < Math.min(3, messages.size()); i++) {
+            if (i > 0)
+                x = drawText(g, font, messageSeparator, x, y);
+            x = drawText(g, font, messages.get(i).getText(), x, y);
+        }
+        if (messages.size() > 3) {
+            x = drawText(g, font, lineSeparator, 20, view.getHeight() - 17);
+            drawText(g, font, messages.get(3).getText(), x, view.getHeight() - 17);
+        }
+    }
+
+    /**
+     * Draws cached text.
+     * @return The x-coordinate after the text.
+     */
+    private int drawText(Graphics2D g, Font font, String string, int x, int y) {
+        Text text = text(g, font, string);
+        g.drawGlyphVector(text.glyphs, x, y);
+        return x + text.width;
+    }
+
+    /**
+     * Draws the nets remaining and the messages of a turn without clearing them, for
+     * renderers that draw every frame.
+     * @param g The graphics object.
+     * @param state The state to draw.
+     */
+    public void drawHud(Graphics2D g, TurnResult state) {
+        if (!state.gameOver)
+            drawNetsRemaining(g, state.numNets);
+        if (!state.messages.isEmpty()) {
+            g.setColor(Color.black);
+            drawMaxFourMessages(g, state.messages);
+        }
+    }
+
+    /**
+     * Draws the messages.
+     * @param g The graphics object.
+     */
+    public void drawMessage(Graphics2D g) {
+        TurnResult state = view.getState();
+        if (!state.gameOver)
+            drawNetsRemaining(g, state.numNets);
+
+        MessageLog messages = view.getMessages();
+        if (!messages.isEmpty()) {
+            g.setColor(Color.black);
+
+            drawMaxFourMessages(g, messages);
+
+            messages.clear();
+        }
+    }
+}
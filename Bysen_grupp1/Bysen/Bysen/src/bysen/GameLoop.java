@@ -0,0 +1,236 @@
+package bysen;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs the game engine on its own thread. The view submits commands to a queue, and the
+ * loop thread runs them on the engine and publishes a {@link TurnResult} after each one.
+ * Only the loop thread touches the engine while the loop is running.
+ */
+public class GameLoop {
+    static final int queueCapacity = 64;
+
+    private final GameEngine engine;
+    private final Consumer<TurnResult> listener;
+    private final BlockingQueue<Task> commands = new ArrayBlockingQueue<>(queueCapacity);
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private ReplayRecorder recorder;
+    private Leaderboard leaderboard;
+
+    /**
+     * A command and, for {@link #call(Command)}, the future that gets its result.
+     */
+    private static final class Task {
+        final Command command;
+        final CompletableFuture<TurnResult> result;
+        final long submitted = Metrics.start();
+
+        Task(Command command, CompletableFuture<TurnResult> result) {
+            this.command = command;
+            this.result = result;
+        }
+    }
+
+    /**
+     * @param engine The engine to run. It must not be used by other threads while the loop runs.
+     * @param listener Gets the result of every command, on the loop thread.
+     */
+    public GameLoop(GameEngine engine, Consumer<TurnResult> listener) {
+        if (engine == null || listener == null)
+            throw new NullPointerException("Engine and listener cannot be null");
+        this.engine = engine;
+        this.listener = listener;
+        this.thread = new Thread(this::run, "game-loop");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Records every command the loop runs. Must be set before the loop is started.
+     *
+     * @param recorder The recorder, or null to stop recording.
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        if (running)
+            throw new IllegalStateException("The loop is already running");
+        this.recorder = recorder;
+    }
+
+    /**
+     * Records the result of every finished game. Must be set before the loop is started.
+     *
+     * @param leaderboard The leaderboard, or null.
+     */
+    public void setLeaderboard(Leaderboard leaderboard) {
+        if (running)
+            throw new IllegalStateException("The loop is already running");
+        this.leaderboard = leaderboard;
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the loop thread and waits for it to finish. Queued commands are dropped, and
+     * threads waiting in {@link #call(Command)} get an exception.
+     */
+    public void stop() throws InterruptedException {
+        stopped = true;
+        running = false;
+        thread.interrupt();
+        thread.join();
+        for (Task task; (task = commands.poll()) != null; ) {
+            if (task.result != null)
+                task.result.completeExceptionally(new IllegalStateException("The loop has stopped"));
+        }
+    }
+
+    /**
+     * Queues a command without waiting for it.
+     *
+     * @param command The command to run.
+     * @return False if the queue is full and the command was dropped.
+     */
+    public boolean submit(Command command) {
+        if (command == null)
+            throw new NullPointerException("Command cannot be null");
+        return commands.offer(new Task(command, null));
+    }
+
+    /**
+     * Queues a command and waits for its result.
+     *
+     * @param command The command to run.
+     * @return The result of the command.
+     */
+    public TurnResult call(Command command) throws InterruptedException {
+        if (command == null)
+            throw new NullPointerException("Command cannot be null");
+        if (Thread.currentThread() == thread)
+            throw new IllegalStateException("The loop thread cannot wait for itself");
+        CompletableFuture<TurnResult> result = new CompletableFuture<>();
+        Task task = new Task(command, result);
+        commands.put(task);
+        if (stopped && commands.remove(task))
+            throw new IllegalStateException("The loop has stopped");
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Command failed: " + command, e.getCause());
+        }
+    }
+
+    private void run() {
+        while (running) {
+            Task task;
+            try {
+                task = commands.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            TurnResult result;
+            RuntimeException failure = null;
+            try {
+                result = execute(task.command);
+                if (result.outcome != null) {
+                    Metrics.stop(Metrics.Timer.TURN, task.submitted);
+                    Metrics.turn(result.outcome);
+                }
+            } catch (RuntimeException e) {
+                // The engine may have changed before the command failed, so the view still
+                // gets the state it is in
+                System.err.println("Command failed: " + task.command + ": " + e);
+                failure = e;
+                result = publish(null, TurnResult.Request.NONE);
+            }
+            listener.accept(result);
+            if (task.result != null) {
+                if (failure != null)
+                    task.result.completeExceptionally(failure);
+                else
+                    task.result.complete(result);
+            }
+        }
+    }
+
+    /**
+     * Runs a command on the engine.
+     *
+     * @param command The command to run.
+     * @return The result to publish.
+     */
+    TurnResult execute(Command command) {
+        Outcome outcome = null;
+        TurnResult.Request request = TurnResult.Request.NONE;
+        switch (command.type) {
+            case NEW_GAME:
+                request = TurnResult.Request.NAME;
+                break;
+            case START:
+                engine.startNewGame(command.name);
+                break;
+            case MOVE:
+                outcome = engine.move(command.value);
+                break;
+            case THROW:
+                outcome = engine.throwNet(command.value);
+                break;
+            case ANSWER:
+                outcome = engine.answerQuiz(command.value);
+                break;
+        }
+        if (recorder != null)
+            recordCommand(command, outcome);
+        if (leaderboard != null && outcome != null && outcome.isGameOver())
+            recordResult(outcome);
+        if (request == TurnResult.Request.NONE && engine.isQuizPending())
+            request = TurnResult.Request.QUIZ;
+        return publish(outcome, request);
+    }
+
+    /**
+     * Records a command in the replay log. If the log cannot be written, recording stops
+     * and the game goes on.
+     */
+    private void recordCommand(Command command, Outcome outcome) {
+        try {
+            recorder.record(command, outcome);
+        } catch (RuntimeException e) {
+            System.err.println("Cannot record the session, recording stops: " + e);
+            recorder = null;
+        }
+    }
+
+    /**
+     * Records a finished game. The game goes on if the leaderboard cannot be written.
+     */
+    private void recordResult(Outcome outcome) {
+        if (engine.getPlayerName() == null)
+            return;
+        try {
+            leaderboard.record(engine.getPlayerName(), outcome, engine.getNetsThrown(), engine.getTurns());
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getMessage() + ": " + e.getCause().getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Cannot record the result: " + e);
+        }
+    }
+
+    private TurnResult publish(Outcome outcome, TurnResult.Request request) {
+        MessageLog messages = new MessageLog();
+        messages.addAll(engine.getMessages());
+        engine.clearMessages();
+        boolean quiz = request == TurnResult.Request.QUIZ;
+        return new TurnResult(outcome, request, engine.isGameOver(), engine.getCurrRoom(),
+                engine.getNumNets(), messages, engine.getPlayerName(),
+                quiz ? engine.getQuizQuestion() : null, quiz ? engine.getQuizOptions() : null);
+    }
+}
@@ -0,0 +1,170 @@
+package bysen;
+
+/**
+ * The map of the game: room coordinates and the links between rooms.
+ * Coordinates are kept in flat int arrays, and the links in compressed sparse row form:
+ * the links of room r are {@code linkTargets[linkOffsets[r]]} up to
+ * {@code linkTargets[linkOffsets[r + 1] - 1]}. Links always go both ways.
+ */
+public class GameMap {
+    private final int[] xs, ys;
+    private final int[] linkOffsets, linkTargets;
+    private volatile RoomDistances distances;
+
+    /**
+     * @param xs The x-coordinate of each room.
+     * @param ys The y-coordinate of each room.
+     * @param linkOffsets Where the links of each room start, with one extra entry at the end.
+     * @param linkTargets The linked rooms of all rooms after each other.
+     */
+    GameMap(int[] xs, int[] ys, int[] linkOffsets, int[] linkTargets) {
+        if (xs.length == 0 || xs.length != ys.length || linkOffsets.length != xs.length + 1
+                || linkOffsets[xs.length] != linkTargets.length)
+            throw new IllegalArgumentException("Inconsistent map arrays");
+        this.xs = xs;
+        this.ys = ys;
+        this.linkOffsets = linkOffsets;
+        this.linkTargets = linkTargets;
+    }
+
+    /**
+     * Creates a map from a table with the links of each room.
+     *
+     * @param xs The x-coordinate of each room.
+     * @param ys The y-coordinate of each room.
+     * @param links The linked rooms of each room. Every room needs at least one link, and
+     *              a room must be in the links of every room it links to.
+     */
+    public static GameMap fromLinks(int[] xs, int[] ys, int[][] links) {
+        if (links.length != xs.length)
+            throw new IllegalArgumentException("Every room needs a list of links");
+        for (int room = 0; room < links.length; room++) {
+            if (links[room].length == 0)
+                throw new IllegalArgumentException("Room " + room + " has no links");
+            for (int target : links[room]) {
+                if (target < 0 || target >= links.length)
+                    throw new IllegalArgumentException("Room " + room + " links to a missing room: " + target);
+                if (target == room)
+                    throw new IllegalArgumentException("Room " + room + " links to itself");
+                if (!contains(links[target], room))
+                    throw new IllegalArgumentException("Room " + room + " links to " + target + " but not back");
+            }
+        }
+        int[] offsets = new int[links.length + 1];
+        for (int i = 0; i < links.length; i++)
+            offsets[i + 1] = offsets[i] + links[i].length;
+        int[] targets = new int[offsets[links.length]];
+        for (int i = 0; i < links.length; i++)
+            System.arraycopy(links[i], 0, targets, offsets[i], links[i].length);
+        return new GameMap(xs.clone(), ys.clone(), offsets, targets);
+    }
+
+    private static boolean contains(int[] rooms, int room) {
+        for (int r : rooms)
+            if (r == room)
+                return true;
+        return false;
+    }
+
+    /**
+     * Returns the classic map: 20 rooms on a dodecahedron with three links per room.
+     */
+    public static GameMap dodecahedron() {
+        int[] xs = {334, 609, 499, 169, 62, 169, 232, 334, 435, 499,
+                499, 435, 334, 232, 169, 254, 285, 387, 418, 334};
+        int[] ys = {20, 220, 540, 540, 220, 255, 168, 136, 168, 255,
+                361, 447, 480, 447, 361, 336, 238, 238, 336, 393};
+        int[][] links = {{4, 7, 1}, {0, 9, 2}, {1, 11, 3}, {4, 13, 2}, {0, 5, 3},
+                {4, 6, 14}, {7, 16, 5}, {6, 0, 8}, {7, 17, 9}, {8, 1, 10}, {9, 18, 11},
+                {10, 2, 12}, {13, 19, 11}, {14, 3, 12}, {5, 15, 13}, {14, 16, 19},
+                {6, 17, 15}, {16, 8, 18}, {19, 10, 17}, {15, 12, 18}};
+        return fromLinks(xs, ys, links);
+    }
+
+    public int getRoomCount() {
+        return xs.length;
+    }
+    public int getLinkCount() {
+        return linkTargets.length;
+    }
+    public int x(int room) {
+        return xs[room];
+    }
+    public int y(int room) {
+        return ys[room];
+    }
+
+    /**
+     * Returns the number of links of a room.
+     */
+    public int degree(int room) {
+        return linkOffsets[room + 1] - linkOffsets[room];
+    }
+
+    /**
+     * Returns the i:th linked room of a room.
+     */
+    public int link(int room, int i) {
+        return linkTargets[linkOffsets[room] + i];
+    }
+
+    /**
+     * Returns where the links of a room start in {@link #linkTarget(int)}.
+     */
+    public int linkStart(int room) {
+        return linkOffsets[room];
+    }
+
+    /**
+     * Returns where the links of a room end (exclusive) in {@link #linkTarget(int)}.
+     */
+    public int linkEnd(int room) {
+        return linkOffsets[room + 1];
+    }
+
+    public int linkTarget(int index) {
+        return linkTargets[index];
+    }
+
+    /**
+     * Returns true if the given rooms are linked.
+     */
+    public boolean isLinked(int from, int to) {
+        for (int i = linkOffsets[from], end = linkOffsets[from + 1]; i < end; i++)
+            if (linkTargets[i] == to)
+                return true;
+        return false;
+    }
+
+    /**
+     * Returns the distances between the rooms. They are computed the first time they are
+     * asked for and then shared by everyone who uses the map.
+     */
+    public RoomDistances getDistances() {
+        RoomDistances distances = this.distances;
+        if (distances == null) {
+            synchronized (this) {
+                distances = this.distances;
+                if (distances == null)
+                    this.distances = distances = RoomDistances.of(this);
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Returns the largest x- and y-coordinate of any room.
+     */
+    public int getMaxX() {
+        int max = 0;
+        for (int x : xs)
+            max = Math.max(max, x);
+        return max;
+    }
+    public int getMaxY() {
+        int max = 0;
+        for (int y : ys)
+            max = Math.max(max, y);
+        return max;
+    }
+}
@@ -0,0 +1,327 @@
+package bysen;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts many game sessions on a loopback socket. Every connection is one session with its
+ * own engine and random generator, and runs on its own virtual thread (a platform thread
+ * before Java 21). All sessions share one map, and engines are reused through a
+ * {@link SessionPool}.
+ * <p>
+ * The protocol is one ASCII line per request and one per response:
+ * <pre>
+ *   NEW [name]   ->  STARTED room nets warnings
+ *   MOVE room    ->  OUTCOME room nets warnings
+ *   THROW room   ->  OUTCOME room nets warnings
+ *   ANSWER i     ->  OUTCOME room nets warnings
+ *   QUIT         ->  BYE
+ * </pre>
+ * OUTCOME is the name of an {@link Outcome}; a QUIZ response also ends with the number of
+ * options. warnings is the warning mask of the current room. A bad request gets
+ * {@code ERROR text}. A session that sends nothing for the idle timeout gets {@code BYE idle}
+ * and is closed.
+ */
+public class GameServer implements Closeable {
+    static final int maxLineLength = 128;
+
+    private final GameMap map;
+    private final int idleTimeoutMillis;
+    private final int maxSessions;
+    private final SessionPool pool;
+    private final Set<Socket> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger turns = new AtomicInteger();
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+    private Thread acceptThread;
+    private Leaderboard leaderboard;
+
+    /**
+     * @param map The map all sessions play on.
+     * @param idleTimeoutMillis How long a session may be idle before it is closed.
+     * @param maxSessions The number of sessions that may be open at once.
+     * @param seed The seed the sessions' random generators are split from, see {@link SessionPool}.
+     */
+    public GameServer(GameMap map, int idleTimeoutMillis, int maxSessions, long seed) {
+        if (map == null)
+            throw new NullPointerException("Map cannot be null");
+        if (idleTimeoutMillis < 1)
+            throw new IllegalArgumentException("Idle timeout must be at least 1 ms");
+        if (maxSessions < 1)
+            throw new IllegalArgumentException("Max sessions must be at least 1");
+        this.map = map;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxSessions = maxSessions;
+        this.pool = new SessionPool(map, Math.min(maxSessions, 1024), seed);
+    }
+
+    /**
+     * Records the result of every finished game. Must be set before the server is started.
+     *
+     * @param leaderboard The leaderboard, shared by all sessions, or null.
+     */
+    public void setLeaderboard(Leaderboard leaderboard) {
+        if (serverSocket != null)
+            throw new IllegalStateException("The server is already started");
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * Returns an executor that runs every task on a new virtual thread, or on a new daemon
+     * platform thread when virtual threads are not available.
+     */
+    static ExecutorService newThreadPerTaskExecutor(String name) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Starts listening on the loopback address.
+     *
+     * @param port The port, or 0 for any free port.
+     */
+    public void start(int port) throws IOException {
+        if (serverSocket != null)
+            throw new IllegalStateException("The server is already started");
+        serverSocket = new ServerSocket(port, 4096, InetAddress.getLoopbackAddress());
+        executor = newThreadPerTaskExecutor("game-session");
+        acceptThread = new Thread(this::acceptSessions, "game-server");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of open sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Returns the number of requests answered since the server started.
+     */
+    public int getTurnCount() {
+        return turns.get();
+    }
+
+    private void acceptSessions() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                return; // the server was closed
+            }
+            if (sessions.size() >= maxSessions) {
+                reject(socket);
+                continue;
+            }
+            sessions.add(socket);
+            Session session = new Session(socket, pool.acquire());
+            executor.execute(session);
+        }
+    }
+
+    private static void reject(Socket socket) {
+        try (socket) {
+            socket.getOutputStream().write("ERROR server full\n".getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            // the client is gone already
+        }
+    }
+
+    /**
+     * Stops accepting sessions and closes all open sessions.
+     */
+    @Override
+    public void close() throws IOException {
+        if (serverSocket == null)
+            return;
+        serverSocket.close();
+        for (Socket socket : sessions)
+            socket.close();
+        executor.shutdown();
+    }
+
+    /**
+     * One connection and its game.
+     */
+    private final class Session implements Runnable {
+        private final Socket socket;
+        private final GameEngine engine;
+        private final byte[] line = new byte[maxLineLength];
+        private final StringBuilder response = new StringBuilder(64);
+
+        Session(Socket socket, GameEngine engine) {
+            this.socket = socket;
+            this.engine = engine;
+        }
+
+        @Override
+        public void run() {
+            try (socket) {
+                socket.setSoTimeout(idleTimeoutMillis);
+                socket.setTcpNoDelay(true);
+                InputStream in = new BufferedInputStream(socket.getInputStream(), 512);
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 512);
+                while (true) {
+                    int length;
+                    try {
+                        length = readLine(in);
+                    } catch (SocketTimeoutException e) {
+                        send(out, "BYE idle");
+                        return;
+                    }
+                    if (length < 0)
+                        return;
+                    String request = new String(line, 0, length, StandardCharsets.US_ASCII);
+                    if (request.equals("QUIT")) {
+                        send(out, "BYE");
+                        return;
+                    }
+                    send(out, handle(request));
+                    turns.incrementAndGet();
+                }
+            } catch (IOException e) {
+                // the connection was closed
+            } finally {
+                sessions.remove(socket);
+                pool.release(engine);
+            }
+        }
+
+        /**
+         * Reads one line into the line buffer.
+         *
+         * @return The length of the line, or -1 at the end of the stream.
+         */
+        private int readLine(InputStream in) throws IOException {
+            int length = 0;
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b == -1)
+                    return length > 0 ? length : -1;
+                if (b == '\r')
+                    continue;
+                if (length == line.length)
+                    throw new IOException("Line is longer than " + maxLineLength + " bytes");
+                line[length++] = (byte) b;
+            }
+            return length;
+        }
+
+        private void send(OutputStream out, CharSequence text) throws IOException {
+            for (int i = 0; i < text.length(); i++)
+                out.write(text.charAt(i));
+            out.write('\n');
+            out.flush();
+        }
+
+        /**
+         * Runs a request on the engine.
+         *
+         * @param request The request line.
+         * @return The response line.
+         */
+        CharSequence handle(String request) {
+            long start = Metrics.start();
+            int space = request.indexOf(' ');
+            String command = space == -1 ? request : request.substring(0, space);
+            String argument = space == -1 ? "" : request.substring(space + 1).trim();
+            if (command.equals("NEW")) {
+                engine.startNewGame(argument.isEmpty() ? "Spelare" : argument);
+                engine.clearMessages();
+                return state("STARTED");
+            }
+            int value;
+            try {
+                value = Integer.parseInt(argument);
+            } catch (NumberFormatException e) {
+                return "ERROR expected a number: " + argument;
+            }
+            Outcome outcome;
+            switch (command) {
+                case "MOVE":
+                    outcome = value >= 0 && value < map.getRoomCount() ? engine.move(value) : Outcome.INVALID;
+                    break;
+                case "THROW":
+                    outcome = value >= 0 && value < map.getRoomCount() ? engine.throwNet(value) : Outcome.INVALID;
+                    break;
+                case "ANSWER":
+                    outcome = engine.answerQuiz(value);
+                    break;
+                default:
+                    return "ERROR unknown command: " + command;
+            }
+            engine.clearMessages();
+            if (leaderboard != null && outcome.isGameOver())
+                recordResult(outcome);
+            Metrics.stop(Metrics.Timer.TURN, start);
+            Metrics.turn(outcome);
+            StringBuilder state = state(outcome.name());
+            if (outcome == Outcome.QUIZ)
+                state.append(' ').append(engine.getQuizOptionCount());
+            return state;
+        }
+
+        /**
+         * Records a finished game. The session goes on if the leaderboard cannot be written.
+         */
+        private void recordResult(Outcome outcome) {
+            try {
+                leaderboard.record(engine.getPlayerName(), outcome, engine.getNetsThrown(), engine.getTurns());
+            } catch (RuntimeException e) {
+                System.err.println("Cannot record the result: " + e);
+            }
+        }
+
+        private StringBuilder state(String first) {
+            response.setLength(0);
+            return response.append(first)
+                    .append(' ').append(engine.getCurrRoom())
+                    .append(' ').append(engine.getNumNets())
+                    .append(' ').append(engine.getWarnings());
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 4545;
+        int idleSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        Metrics.install();
+        GameServer server = new GameServer(GameMap.dodecahedron(), idleSeconds * 1000, 100_000, System.nanoTime());
+        String leaderboard = System.getProperty(Leaderboard.fileProperty);
+        if (leaderboard != null)
+            server.setLeaderboard(Leaderboard.open(Path.of(leaderboard)));
+        server.start(port);
+        System.out.println("Listening on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,209 @@
+package bysen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saves and restores the state of a {@link GameEngine} in a fixed binary layout. A snapshot
+ * of a map with n rooms always takes {@link #size(int)} bytes, so many snapshots can be
+ * stored back to back in one buffer or file and read by index. All values are little-endian:
+ * <pre>
+ *   0   magic, version, room count, flags (bit 0: game over)       4 ints
+ *   16  current room, nets, Bysen's room, quiz question index      4 ints
+ *   32  player name length in bytes, -1 for no name                short
+ *   34  player name in UTF-8, cut to at most 62 bytes
+ *   96  turns and nets thrown in the game                          2 ints
+ *   104 one bit mask per creature, see {@link CreatureBoard#save(ByteBuffer, int)}
+ * </pre>
+ * The engine's random generator and settings are not part of a snapshot. Neither are the
+ * schedules of wandering creatures, so an engine whose creatures wander can be neither saved
+ * nor restored. Restoring a snapshot does not allocate, so a state can be forked cheaply for
+ * search.
+ */
+public final class GameSnapshot {
+    static final int magic = 0x53535942; // "BYSS"
+    static final int version = 2;
+    static final int maxNameBytes = 62;
+    static final int headerSize = 104;
+
+    private GameSnapshot() {
+    }
+
+    /**
+     * Returns the size in bytes of a snapshot of a map with the given number of rooms.
+     */
+    public static int size(int roomCount) {
+        return headerSize + CreatureBoard.creatureCount * ((roomCount + 63) >>> 6) * Long.BYTES;
+    }
+
+    /**
+     * Allocates a direct buffer that holds the given number of snapshots.
+     *
+     * @param roomCount The number of rooms on the map.
+     * @param count The number of snapshots.
+     * @return The buffer, in the byte order snapshots use.
+     */
+    public static ByteBuffer allocate(int roomCount, int count) {
+        long bytes = (long) size(roomCount) * count;
+        if (count < 0 || bytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Cannot allocate " + count + " snapshots");
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void checkOrder(ByteBuffer buffer) {
+        if (buffer.order() != ByteOrder.LITTLE_ENDIAN)
+            throw new IllegalArgumentException("Snapshot buffers must be little-endian");
+    }
+
+    private static void checkNotWandering(GameEngine engine) {
+        if (engine.getWanderers() != null)
+            throw new IllegalArgumentException("Cannot snapshot an engine whose creatures wander");
+    }
+
+    /**
+     * Writes the engine's state to a buffer. A player name longer than
+     * {@value #maxNameBytes} bytes in UTF-8 is saved shortened.
+     *
+     * @param engine The engine to save. Its creatures must not wander.
+     * @param buffer A little-endian buffer. Its position is not changed.
+     * @param offset The index of the first byte to write.
+     */
+    public static void save(GameEngine engine, ByteBuffer buffer, int offset) {
+        checkOrder(buffer);
+        checkNotWandering(engine);
+        byte[] name = engine.playerName == null ? null
+                : GameEngine.shortenName(engine.playerName, maxNameBytes).getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(offset, magic);
+        buffer.putInt(offset + 4, version);
+        buffer.putInt(offset + 8, engine.map.getRoomCount());
+        buffer.putInt(offset + 12, engine.gameOver ? 1 : 0);
+        buffer.putInt(offset + 16, engine.currRoom);
+        buffer.putInt(offset + 20, engine.numNets);
+        buffer.putInt(offset + 24, engine.creatureRoom);
+        buffer.putInt(offset + 28, engine.questionIndex);
+        buffer.putShort(offset + 32, (short) (name == null ? -1 : name.length));
+        for (int i = 0; i < maxNameBytes; i++)
+            buffer.put(offset + 34 + i, name != null && i < name.length ? name[i] : 0);
+        buffer.putInt(offset + 96, engine.turns);
+        buffer.putInt(offset + 100, engine.netsThrown);
+        engine.creatures.save(buffer, offset + headerSize);
+    }
+
+    /**
+     * Restores the engine's state from a buffer and clears its messages. The whole snapshot
+     * is checked first, so the engine is left as it was if the snapshot is invalid.
+     *
+     * @param engine The engine to restore. Its map must have the same number of rooms, and its
+     *               creatures must not wander.
+     * @param buffer A little-endian buffer. Its position is not changed.
+     * @param offset The index of the first byte of the snapshot.
+     */
+    public static void load(GameEngine engine, ByteBuffer buffer, int offset) {
+        checkOrder(buffer);
+        checkNotWandering(engine);
+        if (buffer.getInt(offset) != magic)
+            throw new IllegalArgumentException("Not a snapshot");
+        if (buffer.getInt(offset + 4) != version)
+            throw new IllegalArgumentException("Unsupported snapshot version: " + buffer.getInt(offset + 4));
+        int roomCount = buffer.getInt(offset + 8);
+        if (roomCount != engine.map.getRoomCount())
+            throw new IllegalArgumentException("The snapshot has " + roomCount + " rooms, the map has "
+                    + engine.map.getRoomCount());
+        if (offset + size(roomCount) > buffer.limit())
+            throw new IllegalArgumentException("Snapshot is truncated");
+        int currRoom = buffer.getInt(offset + 16);
+        int numNets = buffer.getInt(offset + 20);
+        int creatureRoom = buffer.getInt(offset + 24);
+        int questionIndex = buffer.getInt(offset + 28);
+        int turns = buffer.getInt(offset + 96);
+        int netsThrown = buffer.getInt(offset + 100);
+        if (currRoom < 0 || currRoom >= roomCount || creatureRoom < 0 || creatureRoom >= roomCount)
+            throw new IllegalArgumentException("Snapshot has a room out of range");
+        if (questionIndex < -1 || questionIndex >= engine.getQuizBank().size())
+            throw new IllegalArgumentException("Snapshot has an invalid quiz question: " + questionIndex);
+        if (numNets < 0 || turns < 0 || netsThrown < 0)
+            throw new IllegalArgumentException("Snapshot has a negative count");
+        String playerName = readName(engine.playerName, buffer, offset);
+
+        engine.gameOver = (buffer.getInt(offset + 12) & 1) != 0;
+        engine.currRoom = currRoom;
+        engine.numNets = numNets;
+        engine.creatureRoom = creatureRoom;
+        engine.questionIndex = questionIndex;
+        engine.playerName = playerName;
+        engine.turns = turns;
+        engine.netsThrown = netsThrown;
+        engine.creatures.load(buffer, offset + headerSize);
+        engine.clearMessages();
+    }
+
+    /**
+     * Reads the player name, reusing the current name if it has not changed.
+     */
+    private static String readName(String current, ByteBuffer buffer, int offset) {
+        int length = buffer.getShort(offset + 32);
+        if (length < 0)
+            return null;
+        if (length > maxNameBytes)
+            throw new IllegalArgumentException("Invalid player name length: " + length);
+        if (current != null && current.length() == length) {
+            // An ASCII name has one byte per char and can be compared without decoding
+            boolean same = true;
+            for (int i = 0; same && i < length; i++) {
+                char c = current.charAt(i);
+                same = c < 0x80 && c == buffer.get(offset + 34 + i);
+            }
+            if (same)
+                return current;
+        }
+        byte[] name = new byte[length];
+        buffer.get(offset + 34, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Saves many engines to a file, one snapshot after another.
+     *
+     * @param file The file to write, replacing any old file.
+     * @param engines The engines. All maps must have the same number of rooms.
+     */
+    public static void writeCheckpoint(Path file, GameEngine... engines) throws IOException {
+        int roomCount = engines.length == 0 ? 1 : engines[0].map.getRoomCount();
+        int size = size(roomCount);
+        ByteBuffer buffer = allocate(roomCount, engines.length);
+        for (int i = 0; i < engines.length; i++) {
+            if (engines[i].map.getRoomCount() != roomCount)
+                throw new IllegalArgumentException("All engines must have maps with " + roomCount + " rooms");
+            save(engines[i], buffer, i * size);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /**
+     * Restores many engines from a file written by {@link #writeCheckpoint(Path, GameEngine...)}.
+     *
+     * @param file The file to read. It must hold at least one snapshot per engine.
+     * @param engines The engines to restore, in the order they were saved.
+     */
+    public static void readCheckpoint(Path file, GameEngine... engines) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < engines.length; i++) {
+                int size = size(engines[i].map.getRoomCount());
+                if ((long) (i + 1) * size > buffer.limit())
+                    throw new IllegalArgumentException("The checkpoint holds fewer than " + engines.length + " snapshots");
+                load(engines[i], buffer, i * size);
+            }
+        }
+    }
+}
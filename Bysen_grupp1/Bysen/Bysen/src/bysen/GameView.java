@@ -0,0 +1,31 @@
+package bysen;
+
+import java.awt.*;
+
+/**
+ * What {@link GameGraphics} draws: the published state of a game, its map and the size and
+ * style of the surface. The {@link Game} panel is one view; {@link BatchRenderer} draws
+ * states into images through views of its own.
+ */
+public interface GameView {
+    // Constants for room and player sizes
+    int roomSize = 45;
+    int playerSize = 16;
+
+    TurnResult getState();
+
+    GameMap getMap();
+
+    /**
+     * Returns the messages {@link GameGraphics#drawMessage} draws and then clears.
+     */
+    MessageLog getMessages();
+
+    int getWidth();
+
+    int getHeight();
+
+    Color getBackground();
+
+    Font getFont();
+}
@@ -0,0 +1,103 @@
+package bysen;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values, such as durations in nanoseconds.
+ * Every power of two is split into 8 buckets, so a percentile is off by at most 1/8.
+ * Any number of threads can record at once; recording is an atomic increment and does
+ * not allocate.
+ */
+public class Histogram {
+    static final int subBits = 3;
+    static final int subBuckets = 1 << subBits;
+    static final int bucketCount = (64 - subBits) * subBuckets;
+
+    private final AtomicLongArray counts = new AtomicLongArray(bucketCount);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    static int bucket(long value) {
+        if (value < subBuckets)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - subBits)) & (subBuckets - 1);
+        return (exponent - subBits + 1) * subBuckets + sub;
+    }
+
+    /**
+     * Returns the smallest value that falls in the bucket.
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < subBuckets)
+            return bucket;
+        int exponent = bucket / subBuckets + subBits - 1;
+        return (long) (subBuckets + bucket % subBuckets) << (exponent - subBits);
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        long m;
+        while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+            // another thread raised the max, try again
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Returns the value that the given share of the recorded values stayed within,
+     * rounded down to the start of its bucket.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        long total = 0;
+        long[] snapshot = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++)
+            total += snapshot[i] = counts.get(i);
+        if (total == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            seen += snapshot[i];
+            if (seen >= rank)
+                return lowerBound(i);
+        }
+        return getMax();
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < bucketCount; i++)
+            counts.set(i, 0);
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+}
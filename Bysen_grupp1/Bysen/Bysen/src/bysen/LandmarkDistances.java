@@ -0,0 +1,187 @@
+package bysen;
+
+import java.util.Arrays;
+
+/**
+ * Approximate distances for maps too large for a {@link DistanceTable}. A few landmark
+ * rooms are picked, each as far as possible from the ones before it, and the distance
+ * from every landmark to every room is stored, which takes two bytes per room and
+ * landmark. By the triangle inequality, {@code |d(l, a) - d(l, b)|} is a lower bound of
+ * {@code d(a, b)} for every landmark l, and the largest of them is used. Distances 0 and 1
+ * are always exact, since they are read from the map.
+ * <p>
+ * A lower bound is what placement needs: a room the table says is far enough away really
+ * is. The bound also guides an A* search for {@link #nextHop}, which makes the next hops
+ * exact; a search only visits the rooms the bound cannot rule out, but is not a single
+ * array read like the other queries.
+ */
+final class LandmarkDistances implements RoomDistances {
+    static final int defaultLandmarks = 16;
+    private static final char none = Character.MAX_VALUE;
+
+    private final GameMap map;
+    private final int roomCount;
+    private final int[] landmarks;
+    private final char[] distances; // [landmark * roomCount + room], none if unreachable
+    private final ThreadLocal<Search> searches = ThreadLocal.withInitial(Search::new);
+
+    /**
+     * @param map The map.
+     * @param landmarkCount The number of landmarks, more gives closer estimates.
+     */
+    LandmarkDistances(GameMap map, int landmarkCount) {
+        if (landmarkCount < 1)
+            throw new IllegalArgumentException("There must be at least one landmark");
+        this.map = map;
+        this.roomCount = map.getRoomCount();
+        landmarkCount = Math.min(landmarkCount, roomCount);
+        this.landmarks = new int[landmarkCount];
+        this.distances = new char[landmarkCount * roomCount];
+        int[] queue = new int[roomCount];
+        int[] nearest = new int[roomCount]; // distance to the nearest landmark so far
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        int landmark = 0;
+        for (int l = 0; l < landmarkCount; l++) {
+            landmarks[l] = landmark;
+            search(l, landmark, queue);
+            // The next landmark is the room farthest from all landmarks so far
+            int farthest = -1;
+            for (int room = 0; room < roomCount; room++) {
+                int d = distances[l * roomCount + room];
+                nearest[room] = Math.min(nearest[room], d == none ? Integer.MAX_VALUE - 1 : d);
+                if (farthest == -1 || nearest[room] > nearest[farthest])
+                    farthest = room;
+            }
+            landmark = farthest;
+        }
+    }
+
+    /**
+     * Fills in the distances from a landmark with a breadth-first search.
+     */
+    private void search(int l, int landmark, int[] queue) {
+        int row = l * roomCount;
+        Arrays.fill(distances, row, row + roomCount, none);
+        distances[row + landmark] = 0;
+        int head = 0, tail = 0;
+        queue[tail++] = landmark;
+        while (head < tail) {
+            int room = queue[head++];
+            char next = (char) Math.min(distances[row + room] + 1, none - 1);
+            for (int i = map.linkStart(room), end = map.linkEnd(room); i < end; i++) {
+                int link = map.linkTarget(i);
+                if (distances[row + link] == none) {
+                    distances[row + link] = next;
+                    queue[tail++] = link;
+                }
+            }
+        }
+    }
+
+    int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    /**
+     * Returns the largest lower bound the landmarks give, or {@link #unreachable}.
+     */
+    private int lowerBound(int from, int to) {
+        int bound = 0;
+        for (int row = 0; row < distances.length; row += roomCount) {
+            char a = distances[row + from], b = distances[row + to];
+            if ((a == none) != (b == none))
+                return unreachable;
+            bound = Math.max(bound, Math.abs(a - b));
+        }
+        return bound;
+    }
+
+    @Override
+    public int distance(int from, int to) {
+        if (from == to)
+            return 0;
+        if (map.isLinked(from, to))
+            return 1;
+        return Math.max(2, lowerBound(from, to));
+    }
+
+    /**
+     * The scratch arrays of one thread's searches. Entries are valid for the search whose
+     * number is in {@code visited}, so nothing is cleared between searches.
+     */
+    private final class Search {
+        final int[] cost = new int[roomCount];
+        final int[] first = new int[roomCount]; // the link of the start room the path begins with
+        final int[] visited = new int[roomCount];
+        final int[] closed = new int[roomCount];
+        long[] heap = new long[64]; // estimate << 32 | room
+        int size, number;
+
+        void push(long entry) {
+            if (size == heap.length)
+                heap = Arrays.copyOf(heap, size * 2);
+            int i = size++;
+            while (i > 0 && heap[(i - 1) / 2] > entry) {
+                heap[i] = heap[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            heap[i] = entry;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child])
+                    child++;
+                if (heap[child] >= last)
+                    break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+
+    @Override
+    public int nextHop(int from, int to) {
+        if (from == to || lowerBound(from, to) == unreachable)
+            return -1;
+        if (map.isLinked(from, to))
+            return to;
+        Search search = searches.get();
+        int number = ++search.number;
+        search.size = 0;
+        search.visited[from] = number;
+        search.cost[from] = 0;
+        search.first[from] = -1;
+        search.push((long) lowerBound(from, to) << 32 | from);
+        while (search.size > 0) {
+            int room = (int) search.pop();
+            if (search.closed[room] == number)
+                continue;
+            search.closed[room] = number;
+            if (room == to)
+                return search.first[to];
+            int cost = search.cost[room] + 1;
+            for (int i = map.linkStart(room), end = map.linkEnd(room); i < end; i++) {
+                int link = map.linkTarget(i);
+                if (search.visited[link] == number && search.cost[link] <= cost)
+                    continue;
+                search.visited[link] = number;
+                search.cost[link] = cost;
+                search.first[link] = room == from ? link : search.first[room];
+                search.push((long) (cost + lowerBound(link, to)) << 32 | link);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isExact() {
+        return false;
+    }
+}
@@ -0,0 +1,284 @@
+package bysen;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The results of every finished game, per player. Results are appended to a
+ * {@link LeaderboardLog} and indexed in memory: players by name in a hash map, and the
+ * best players in a top list that is kept sorted as results come in. Since a player's
+ * rank only ever improves (see {@link PlayerStats}), a result moves at most one player up
+ * the list, and reading the top list or a player's results never scans the log.
+ * <p>
+ * Opening a leaderboard replays its log into the index. Recording a result only appends it
+ * to the log's buffer. The records are forced to disk on the leaderboard-sync thread, once
+ * a second and as soon as a batch is waiting, and never while the leaderboard is locked.
+ */
+public class Leaderboard implements Closeable {
+    static final String fileProperty = "bysen.leaderboard";
+    static final int defaultTopSize = 10;
+    static final long syncMillis = 1000;
+    static final long closeMillis = 10_000;
+
+    private final PlayerStats[] top;
+    private int topCount;
+    private final Map<String, PlayerStats> byName = new HashMap<>();
+    private final List<PlayerStats> byId = new ArrayList<>();
+    private long results;
+    private LeaderboardLog log;
+    private ScheduledExecutorService syncer;
+    private boolean syncRequested;
+
+    /**
+     * Creates a leaderboard that is only kept in memory.
+     *
+     * @param topSize The number of players in the top list.
+     */
+    public Leaderboard(int topSize) {
+        if (topSize < 1)
+            throw new IllegalArgumentException("Top size must be at least 1");
+        this.top = new PlayerStats[topSize];
+    }
+
+    /**
+     * Opens the leaderboard kept in a file, creating the file if it does not exist.
+     *
+     * @param file The log file.
+     * @param topSize The number of players in the top list.
+     * @param syncBatch The number of records after which they are forced to disk without
+     *                  waiting for the next second.
+     * @return The leaderboard, with the results in the file.
+     */
+    public static Leaderboard open(Path file, int topSize, int syncBatch) throws IOException {
+        Leaderboard leaderboard = new Leaderboard(topSize);
+        leaderboard.log = LeaderboardLog.open(file, syncBatch, new LeaderboardLog.Visitor() {
+            @Override
+            public void player(int id, String name) {
+                if (id != leaderboard.byId.size())
+                    throw new IllegalArgumentException("Leaderboard log has player " + id
+                            + " where " + leaderboard.byId.size() + " was expected");
+                leaderboard.addPlayer(name);
+            }
+
+            @Override
+            public void result(int playerId, Outcome outcome, int netsUsed, int turns, long time) {
+                if (playerId < 0 || playerId >= leaderboard.byId.size())
+                    throw new IllegalArgumentException("Leaderboard log has a result of unknown player " + playerId);
+                leaderboard.apply(leaderboard.byId.get(playerId), outcome, netsUsed, turns);
+            }
+        });
+        leaderboard.syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "leaderboard-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        leaderboard.syncer.scheduleWithFixedDelay(leaderboard::syncQuietly, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+        return leaderboard;
+    }
+
+    public static Leaderboard open(Path file) throws IOException {
+        return open(file, defaultTopSize, LeaderboardLog.defaultSyncBatch);
+    }
+
+    /**
+     * Records the result of a finished game.
+     *
+     * @param playerName The player. Names longer than {@value LeaderboardLog#maxNameBytes}
+     *                   bytes in UTF-8 are shortened, see {@link #boardName}.
+     * @param outcome The outcome that ended the game.
+     * @param netsUsed The number of nets the player threw.
+     * @param turns The number of moves and throws the game took.
+     * @throws UncheckedIOException If the result could not be written to the log.
+     */
+    public synchronized void record(String playerName, Outcome outcome, int netsUsed, int turns) {
+        if (playerName == null || outcome == null)
+            throw new NullPointerException("Player name and outcome cannot be null");
+        if (!outcome.isGameOver())
+            throw new IllegalArgumentException("Outcome does not end the game: " + outcome);
+        if (netsUsed < 0 || turns < 0)
+            throw new IllegalArgumentException("Nets used and turns cannot be negative");
+        playerName = boardName(playerName);
+        try {
+            PlayerStats player = byName.get(playerName);
+            if (player == null) {
+                if (log != null)
+                    log.appendPlayer(byId.size(), playerName);
+                player = addPlayer(playerName);
+            }
+            if (log != null && log.appendResult(player.id, outcome, netsUsed, turns, System.currentTimeMillis()))
+                requestSync();
+            apply(player, outcome, netsUsed, turns);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to the leaderboard log", e);
+        }
+    }
+
+    /**
+     * Asks the sync thread to sync now, since a batch of records is waiting.
+     */
+    private void requestSync() {
+        if (syncRequested)
+            return;
+        try {
+            syncer.execute(this::syncQuietly);
+            syncRequested = true;
+        } catch (RejectedExecutionException e) {
+            // Closing, which syncs anyway
+        }
+    }
+
+    /**
+     * Returns the name a player is kept under: the name cut to the code points that fit in
+     * {@value LeaderboardLog#maxNameBytes} bytes of UTF-8.
+     */
+    static String boardName(String name) {
+        return GameEngine.shortenName(name, LeaderboardLog.maxNameBytes);
+    }
+
+    private PlayerStats addPlayer(String name) {
+        PlayerStats player = new PlayerStats(byId.size(), name);
+        byId.add(player);
+        byName.put(name, player);
+        return player;
+    }
+
+    private void apply(PlayerStats player, Outcome outcome, int netsUsed, int turns) {
+        player.record(outcome, netsUsed, turns);
+        results++;
+        if (outcome.isWin())
+            promote(player);
+    }
+
+    /**
+     * Moves a player whose rank has improved up the top list.
+     */
+    private void promote(PlayerStats player) {
+        int i = player.topIndex;
+        if (i == -1) {
+            if (topCount < top.length) {
+                i = topCount++;
+            } else if (player.ranksAbove(top[top.length - 1])) {
+                i = top.length - 1;
+                top[i].topIndex = -1;
+            } else {
+                return;
+            }
+            top[i] = player;
+        }
+        for (; i > 0 && player.ranksAbove(top[i - 1]); i--) {
+            top[i] = top[i - 1];
+            top[i].topIndex = i;
+        }
+        top[i] = player;
+        player.topIndex = i;
+    }
+
+    /**
+     * Returns the best players, best first. Only players who have won are listed.
+     */
+    public synchronized List<PlayerStats> getTop() {
+        List<PlayerStats> list = new ArrayList<>(topCount);
+        for (int i = 0; i < topCount; i++)
+            list.add(top[i].copy());
+        return list;
+    }
+
+    /**
+     * Returns a player's results, or null if the player has not finished a game.
+     */
+    public synchronized PlayerStats getPlayer(String name) {
+        PlayerStats player = byName.get(boardName(name));
+        return player == null ? null : player.copy();
+    }
+
+    public synchronized int getPlayerCount() {
+        return byId.size();
+    }
+    public synchronized long getResultCount() {
+        return results;
+    }
+
+    /**
+     * Forces the recorded results to disk. The records are written to the file while the
+     * leaderboard is locked, but forced after it has been unlocked, so that results can be
+     * recorded in the meantime.
+     */
+    public void sync() throws IOException {
+        LeaderboardLog log;
+        synchronized (this) {
+            log = this.log;
+            if (log == null)
+                return;
+            syncRequested = false;
+            log.flush();
+        }
+        log.force();
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.println("Cannot sync the leaderboard: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Syncs and closes the log. A sync already running on the sync thread is waited for.
+     */
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdown();
+            try {
+                syncer.awaitTermination(closeMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (log != null)
+                log.close();
+            log = null;
+        }
+    }
+
+    /**
+     * Prints the top list of a leaderboard file, or with -generate, writes a large log of
+     * random results and times how long it takes to open it again.
+     * Arguments: file [-generate results players]
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args[0]);
+        if (args.length > 1 && args[1].equals("-generate")) {
+            int count = args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000;
+            int players = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+            SplittableRandom rand = new SplittableRandom(42);
+            Outcome[] endings = {Outcome.CAUGHT_BYSEN, Outcome.LOST_TO_BYSEN, Outcome.FELL_INTO_TROLL_RING,
+                    Outcome.GOT_SICK, Outcome.BYSEN_WOKE, Outcome.OUT_OF_NETS};
+            try (Leaderboard leaderboard = open(file, defaultTopSize, 1 << 16)) {
+                for (int i = 0; i < count; i++)
+                    leaderboard.record("Spelare " + rand.nextInt(players), endings[rand.nextInt(endings.length)],
+                            rand.nextInt(4), 1 + rand.nextInt(60));
+            }
+        }
+        long start = System.nanoTime();
+        try (Leaderboard leaderboard = open(file)) {
+            System.out.printf("Opened %d results of %d players in %.0f ms%n", leaderboard.getResultCount(),
+                    leaderboard.getPlayerCount(), (System.nanoTime() - start) / 1e6);
+            for (PlayerStats player : leaderboard.getTop())
+                System.out.println(player);
+        }
+    }
+}
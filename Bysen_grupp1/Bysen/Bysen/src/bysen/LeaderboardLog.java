@@ -0,0 +1,268 @@
+package bysen;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * The append-only file behind a {@link Leaderboard}. The file starts with a magic and a
+ * version, followed by records:
+ * <pre>
+ *   int    length of the body
+ *   body   byte type, int player id, then
+ *            PLAYER: the name in UTF-8
+ *            RESULT: byte outcome ordinal, byte nets used, int turns, long time in ms
+ *   int    CRC32C of the body
+ * </pre>
+ * All numbers are little-endian. Records are collected in a buffer, and appending only
+ * writes to the file when the buffer is full. {@link #flush()} writes the collected records
+ * and {@link #force()} forces what has been written to disk, so that the owner can force
+ * without holding its own lock while records are appended. A crash loses at most the
+ * records since the last force. A record that was cut off by a crash fails its checksum,
+ * and {@link #recover} drops it and everything after it.
+ */
+final class LeaderboardLog implements Closeable {
+    static final int magic = 0x4C535942; // "BYSL"
+    static final int version = 1;
+    static final int headerSize = 8;
+    static final byte PLAYER = 1, RESULT = 2;
+    static final int resultBodySize = 19;
+    static final int maxNameBytes = 255;
+    static final int defaultSyncBatch = 256;
+    static final int recoverChunkSize = 1 << 20;
+
+    private static final Outcome[] outcomes = Outcome.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+    private final int syncBatch;
+    private int unflushed;
+    private volatile boolean unforced;
+
+    /**
+     * Receives the records of a log while it is recovered.
+     */
+    interface Visitor {
+        void player(int id, String name);
+
+        void result(int playerId, Outcome outcome, int netsUsed, int turns, long time);
+    }
+
+    private LeaderboardLog(FileChannel channel, int syncBatch) {
+        this.channel = channel;
+        this.syncBatch = syncBatch;
+    }
+
+    /**
+     * Opens a log for appending, after passing the records already in it to the visitor.
+     * A damaged tail is cut off.
+     *
+     * @param file The file. It is created if it does not exist.
+     * @param syncBatch The number of records after which the append methods report that a
+     *                  batch is waiting.
+     * @param visitor Gets the records in the file.
+     * @return The log, positioned at its end.
+     */
+    static LeaderboardLog open(Path file, int syncBatch, Visitor visitor) throws IOException {
+        if (syncBatch < 1)
+            throw new IllegalArgumentException("Sync batch must be at least 1");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long end;
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(magic).putInt(version).flip();
+                while (header.hasRemaining())
+                    channel.write(header, headerSize - header.remaining());
+                channel.force(false);
+                end = headerSize;
+            } else {
+                end = recover(channel, visitor);
+                if (end < channel.size()) {
+                    channel.truncate(end);
+                    channel.force(false);
+                }
+            }
+            channel.position(end);
+            return new LeaderboardLog(channel, syncBatch);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Passes the intact records of a log to the visitor. The file is read in chunks into
+     * one buffer rather than mapped, since a mapped file cannot be truncated on every
+     * platform.
+     *
+     * @param channel The file.
+     * @param visitor Gets the records.
+     * @return The length of the intact part of the file.
+     */
+    static long recover(FileChannel channel, Visitor visitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(recoverChunkSize).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] array = buffer.array();
+        CRC32C crc = new CRC32C();
+        long fileEnd = channel.size();
+        long bufferStart = 0; // file offset of the start of the buffer
+        int position = 0, limit = 0;
+        boolean header = true;
+        while (true) {
+            // Fill the buffer, keeping the unread part at its start
+            buffer.limit(limit).position(position);
+            buffer.compact();
+            bufferStart += position;
+            position = 0;
+            while (buffer.hasRemaining() && bufferStart + buffer.position() < fileEnd)
+                if (channel.read(buffer, bufferStart + buffer.position()) < 0)
+                    break;
+            limit = buffer.position();
+            buffer.clear();
+            if (header) {
+                if (limit < headerSize || buffer.getInt(0) != magic)
+                    throw new IllegalArgumentException("Not a leaderboard log");
+                if (buffer.getInt(4) != version)
+                    throw new IllegalArgumentException("Unsupported leaderboard log version: " + buffer.getInt(4));
+                position = headerSize;
+                header = false;
+            }
+            int start = position;
+            while (limit - position >= Integer.BYTES) {
+                int length = buffer.getInt(position);
+                int body = position + Integer.BYTES;
+                if (length < 5 || length > maxNameBytes + 5)
+                    return bufferStart + position;
+                if (length > limit - body - Integer.BYTES)
+                    break; // the rest of the record is in the next chunk, or missing
+                crc.reset();
+                crc.update(array, body, length);
+                if ((int) crc.getValue() != buffer.getInt(body + length))
+                    return bufferStart + position;
+                byte type = array[body];
+                int id = buffer.getInt(body + 1);
+                if (type == PLAYER) {
+                    visitor.player(id, new String(array, body + 5, length - 5, StandardCharsets.UTF_8));
+                } else if (type == RESULT && length == resultBodySize) {
+                    int ordinal = array[body + 5];
+                    if (ordinal < 0 || ordinal >= outcomes.length)
+                        return bufferStart + position;
+                    visitor.result(id, outcomes[ordinal], array[body + 6] & 0xFF,
+                            buffer.getInt(body + 7), buffer.getLong(body + 11));
+                } else {
+                    return bufferStart + position;
+                }
+                position = body + length + Integer.BYTES;
+            }
+            if (position == start && bufferStart + limit >= fileEnd)
+                return bufferStart + position; // no whole record left
+        }
+    }
+
+    /**
+     * Appends a record that gives a player id a name.
+     *
+     * @return True if a batch of records is waiting to be synced.
+     */
+    boolean appendPlayer(int id, String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxNameBytes)
+            throw new IllegalArgumentException("Player name is longer than " + maxNameBytes + " bytes");
+        int start = begin(5 + bytes.length);
+        buffer.put(PLAYER).putInt(id).put(bytes);
+        return end(start);
+    }
+
+    /**
+     * Appends the result of a game.
+     *
+     * @return True if a batch of records is waiting to be synced.
+     */
+    boolean appendResult(int playerId, Outcome outcome, int netsUsed, int turns, long time) throws IOException {
+        int start = begin(resultBodySize);
+        buffer.put(RESULT).putInt(playerId).put((byte) outcome.ordinal())
+                .put((byte) Math.min(netsUsed, 0xFF)).putInt(turns).putLong(time);
+        return end(start);
+    }
+
+    private int begin(int length) throws IOException {
+        if (buffer.remaining() < length + 2 * Integer.BYTES)
+            write();
+        buffer.putInt(length);
+        return buffer.position();
+    }
+
+    private boolean end(int start) {
+        int position = buffer.position();
+        crc.reset();
+        crc.update(buffer.array(), start, position - start);
+        buffer.putInt((int) crc.getValue());
+        return ++unflushed >= syncBatch;
+    }
+
+    /**
+     * Writes the buffer to the file, without forcing it to disk.
+     */
+    private void write() throws IOException {
+        buffer.flip();
+        if (buffer.hasRemaining())
+            unforced = true;
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes the collected records to the file, without forcing them to disk. Must not be
+     * called at the same time as the append methods.
+     */
+    void flush() throws IOException {
+        write();
+        unflushed = 0;
+    }
+
+    /**
+     * Forces the records written so far to disk. It can be called from any thread, also
+     * while records are being appended.
+     */
+    void force() throws IOException {
+        if (!unforced)
+            return;
+        unforced = false;
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            unforced = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the collected records and forces them to disk.
+     */
+    void sync() throws IOException {
+        flush();
+        force();
+    }
+
+    long size() throws IOException {
+        return channel.position() + buffer.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package bysen;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens many sessions on a {@link GameServer} and plays random games on all of them at once.
+ * Every request is timed, and the report gives the turns per second and the latency percentiles.
+ * The clients play on the dodecahedron, like the server's {@code main}.
+ */
+public class LoadGenerator {
+    private final int port;
+    private final int sessions;
+    private final int turnsPerSession;
+    private final long seed;
+    private final GameMap map = GameMap.dodecahedron();
+
+    /**
+     * The result of a load run.
+     */
+    public static final class Report {
+        final long turns;
+        final int errors;
+        final double seconds;
+        private final long[] latencies; // sorted, in nanoseconds
+
+        Report(long[] latencies, int errors, double seconds) {
+            this.latencies = latencies;
+            this.turns = latencies.length;
+            this.errors = errors;
+            this.seconds = seconds;
+        }
+
+        public long getTurns() {
+            return turns;
+        }
+        public int getErrors() {
+            return errors;
+        }
+        public double getTurnsPerSecond() {
+            return turns / seconds;
+        }
+
+        /**
+         * Returns the latency in nanoseconds that the given share of the turns stayed within.
+         *
+         * @param percentile The percentile, between 0 and 100.
+         */
+        public long getLatencyPercentile(double percentile) {
+            if (latencies.length == 0)
+                return 0;
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Turns: %d in %.2f s, %.0f turns/s, errors: %d%n"
+                            + "Latency: p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                    turns, seconds, getTurnsPerSecond(), errors,
+                    getLatencyPercentile(50) / 1e3, getLatencyPercentile(99) / 1e3,
+                    getLatencyPercentile(100) / 1e3);
+        }
+    }
+
+    /**
+     * @param port The port of the server on the loopback address.
+     * @param sessions The number of sessions to open at once.
+     * @param turnsPerSession The number of requests each session sends.
+     * @param seed The seed the clients' random generators are split from.
+     */
+    public LoadGenerator(int port, int sessions, int turnsPerSession, long seed) {
+        if (sessions < 1 || turnsPerSession < 1)
+            throw new IllegalArgumentException("Sessions and turns must be at least 1");
+        this.port = port;
+        this.sessions = sessions;
+        this.turnsPerSession = turnsPerSession;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs all sessions and waits for them to finish.
+     */
+    public Report run() throws InterruptedException {
+        long[][] latencies = new long[sessions][];
+        AtomicInteger errors = new AtomicInteger();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        ExecutorService executor = GameServer.newThreadPerTaskExecutor("load-client");
+        long startTime = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            int session = i;
+            SplittableRandom rand = seeds.split();
+            executor.execute(() -> {
+                try {
+                    latencies[session] = play(rand);
+                } catch (IOException e) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.DAYS);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        int total = 0;
+        for (long[] l : latencies)
+            total += l == null ? 0 : l.length;
+        long[] all = new long[total];
+        int at = 0;
+        for (long[] l : latencies) {
+            if (l != null) {
+                System.arraycopy(l, 0, all, at, l.length);
+                at += l.length;
+            }
+        }
+        Arrays.sort(all);
+        return new Report(all, errors.get(), seconds);
+    }
+
+    /**
+     * Plays random games on one session.
+     *
+     * @return The latency of every request in nanoseconds.
+     */
+    private long[] play(SplittableRandom rand) throws IOException {
+        long[] latencies = new long[turnsPerSession];
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+            String[] response = null;
+            for (int turn = 0; turn < turnsPerSession; turn++) {
+                String request = nextRequest(response, rand);
+                long startTime = System.nanoTime();
+                out.write((request + "\n").getBytes(StandardCharsets.US_ASCII));
+                String line = in.readLine();
+                latencies[turn] = System.nanoTime() - startTime;
+                if (line == null || line.startsWith("ERROR"))
+                    throw new IOException("Bad response to " + request + ": " + line);
+                response = line.split(" ");
+            }
+            out.write("QUIT\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        return latencies;
+    }
+
+    /**
+     * Chooses the next request from the last response, like {@link RandomMovePolicy}.
+     */
+    private String nextRequest(String[] response, SplittableRandom rand) {
+        if (response == null || (!response[0].equals("STARTED") && Outcome.valueOf(response[0]).isGameOver()))
+            return "NEW";
+        if (response[0].equals("QUIZ"))
+            return "ANSWER " + rand.nextInt(Integer.parseInt(response[4]));
+        int room = Integer.parseInt(response[1]);
+        int warnings = Integer.parseInt(response[3]);
+        int link = map.link(room, rand.nextInt(map.degree(room)));
+        if ((warnings & 1 << Creatures.Bysen.ordinal()) != 0 && rand.nextInt(3) == 0)
+            return "THROW " + link;
+        return "MOVE " + link;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 4545;
+        int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int turns = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        System.out.print(new LoadGenerator(port, sessions, turns, System.nanoTime()).run());
+    }
+}
@@ -0,0 +1,51 @@
+package bysen;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+import static javax.swing.SwingUtilities.invokeLater;
+
+/**
+ * Starts the game. With {@code -Dbysen.fps=<frames per second>} the game is drawn by an
+ * {@link ActiveRenderer} instead of being repainted after each click.
+ * <p>
+ * The window is shown first. The game prepares its files, game loop and graphics on a
+ * background thread, and the metrics are installed on the main thread while the window
+ * comes up, see {@link StartupTimer}.
+ */
+public class Main {
+    public static void main(String[] args) {
+        StartupTimer.begin();
+        int fps = Integer.getInteger("bysen.fps", 0);
+        invokeLater(() -> {
+            JFrame f = new JFrame();
+            f.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            f.setTitle("Fånga Bysen");
+            f.setResizable(false);
+            Game game = new Game();
+            if (fps > 0) {
+                ActiveRenderer renderer = new ActiveRenderer(game, fps);
+                f.add(renderer.getCanvas(), BorderLayout.CENTER);
+                f.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowClosing(WindowEvent e) {
+                        renderer.stop();
+                        System.out.print(renderer.getStats().report());
+                    }
+                });
+                f.pack();
+                f.setLocationRelativeTo(null);
+                f.setVisible(true);
+                renderer.start();
+            } else {
+                f.add(game, BorderLayout.CENTER);
+                f.pack();
+                f.setLocationRelativeTo(null);
+                f.setVisible(true);
+            }
+        });
+        Metrics.install();
+    }
+}
@@ -0,0 +1,96 @@
+package bysen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates maps with any number of rooms. The rooms are placed on a jittered grid and
+ * joined by a random spanning tree, so every room can be reached. Extra links to the
+ * grid neighbours and diagonals are then added at random, which gives rooms a variable
+ * number of links.
+ */
+public class MapGenerator {
+    static final int spacing = 90;
+    static final int jitter = 20;
+    static final int margin = 20;
+
+    private final double extraLinkChance;
+    private final double diagonalLinkChance;
+
+    public MapGenerator() {
+        this(0.35, 0.1);
+    }
+
+    /**
+     * @param extraLinkChance The chance that two grid neighbours outside the spanning tree are linked.
+     * @param diagonalLinkChance The chance that a room is linked to its lower right diagonal neighbour.
+     */
+    public MapGenerator(double extraLinkChance, double diagonalLinkChance) {
+        if (extraLinkChance < 0 || extraLinkChance > 1 || diagonalLinkChance < 0 || diagonalLinkChance > 1)
+            throw new IllegalArgumentException("Link chances must be between 0 and 1");
+        this.extraLinkChance = extraLinkChance;
+        this.diagonalLinkChance = diagonalLinkChance;
+    }
+
+    /**
+     * Generates a map.
+     *
+     * @param roomCount The number of rooms, at least 2.
+     * @param seed The seed of the random generator, the same seed gives the same map.
+     * @return The generated map.
+     */
+    public GameMap generate(int roomCount, long seed) {
+        if (roomCount < 2)
+            throw new IllegalArgumentException("A map needs at least 2 rooms");
+        SplittableRandom rand = new SplittableRandom(seed);
+        int columns = (int) Math.ceil(Math.sqrt(roomCount));
+
+        int[] xs = new int[roomCount];
+        int[] ys = new int[roomCount];
+        for (int r = 0; r < roomCount; r++) {
+            xs[r] = margin + (r % columns) * spacing + rand.nextInt(jitter + 1);
+            ys[r] = margin + (r / columns) * spacing + rand.nextInt(jitter + 1);
+        }
+
+        // Each room links to at most three rooms before it: left, up and up-left.
+        int maxEdges = 3 * roomCount;
+        int[] from = new int[maxEdges];
+        int[] to = new int[maxEdges];
+        int edges = 0;
+        for (int r = 1; r < roomCount; r++) {
+            int column = r % columns;
+            int left = column > 0 ? r - 1 : -1;
+            int up = r >= columns ? r - columns : -1;
+            int diagonal = column > 0 && r > columns ? r - columns - 1 : -1;
+
+            // Spanning tree: link to the left or the room above, whichever exists, at random if both.
+            int tree = left == -1 ? up : up == -1 ? left : rand.nextBoolean() ? left : up;
+            from[edges] = r;
+            to[edges++] = tree;
+            int other = tree == left ? up : left;
+            if (other != -1 && rand.nextDouble() < extraLinkChance) {
+                from[edges] = r;
+                to[edges++] = other;
+            }
+            if (diagonal != -1 && rand.nextDouble() < diagonalLinkChance) {
+                from[edges] = r;
+                to[edges++] = diagonal;
+            }
+        }
+
+        int[] offsets = new int[roomCount + 1];
+        for (int e = 0; e < edges; e++) {
+            offsets[from[e] + 1]++;
+            offsets[to[e] + 1]++;
+        }
+        for (int r = 0; r < roomCount; r++)
+            offsets[r + 1] += offsets[r];
+        int[] targets = new int[offsets[roomCount]];
+        int[] fill = new int[roomCount];
+        for (int e = 0; e < edges; e++) {
+            int a = from[e], b = to[e];
+            targets[offsets[a] + fill[a]++] = b;
+            targets[offsets[b] + fill[b]++] = a;
+        }
+        return new GameMap(xs, ys, offsets, targets);
+    }
+}
@@ -0,0 +1,48 @@
+package bysen;
+
+/**
+ * Enum for the messages the game shows to the player: one warning per creature and
+ * one message per event. The text of each message is built once, when the enum is loaded.
+ */
+public enum Message {
+    BYSEN_WARNING(Creatures.Bysen.warning),
+    TROLL_WARNING(Creatures.Troll.warning),
+    VITTRA_WARNING(Creatures.Vittra.warning),
+    VÄTTE_WARNING(Creatures.Vätte.warning),
+    TOMTE_WARNING(Creatures.Tomte.warning),
+    LOST_TO_BYSEN("Bysen lockar dig att gå vilse"),
+    FELL_INTO_TROLL_RING("Du faller ner i trollringen"),
+    VITTRA_TELEPORT("Vittran kör iväg dig till ett slumpat rum"),
+    GOT_SICK("Du är sjuk och kan inte försätta spela"),
+    QUIZ_RIGHT("Du har rätt! Ta ett nät!"),
+    QUIZ_WRONG("Det stämmer inte... Hej då!"),
+    CAUGHT_BYSEN("Du vinner! Du har fångat Bysen!"),
+    OUT_OF_NETS("Oops! Inga inga nät kvar."),
+    BYSEN_WOKE("Du väckte Bysen och han är inte glad!"),
+    BYSEN_ESCAPED("Du råkade se Bysen och han bara försvann");
+
+    private static final Message[] values = values();
+
+    Message(String text) {
+        this.text = text;
+    }
+    final String text;
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns the warning message of a creature.
+     */
+    public static Message warning(Creatures creature) {
+        return values[creature.ordinal()];
+    }
+
+    /**
+     * Returns the message with the given ordinal.
+     */
+    static Message of(int ordinal) {
+        return values[ordinal];
+    }
+}
@@ -0,0 +1,68 @@
+package bysen;
+
+/**
+ * A fixed-capacity ring buffer of messages. A message that is already in the log is not
+ * added again, which is checked with a bit mask. When the log is full the oldest message
+ * is dropped. Adding, reading and clearing do not allocate.
+ */
+public class MessageLog {
+    static final int capacity = 16;
+
+    private final byte[] ring = new byte[capacity];
+    private int head, size;
+    private long present;
+
+    /**
+     * Adds a message, unless it is already in the log.
+     *
+     * @param message The message to add.
+     */
+    public void add(Message message) {
+        long bit = 1L << message.ordinal();
+        if ((present & bit) != 0)
+            return;
+        if (size == capacity) {
+            present &= ~(1L << ring[head]);
+            head = (head + 1) & (capacity - 1);
+            size--;
+        }
+        ring[(head + size) & (capacity - 1)] = (byte) message.ordinal();
+        size++;
+        present |= bit;
+    }
+
+    /**
+     * Adds all messages of another log, oldest first.
+     */
+    public void addAll(MessageLog other) {
+        for (int i = 0; i < other.size; i++)
+            add(other.get(i));
+    }
+
+    /**
+     * Returns the i:th message, counted from the oldest.
+     */
+    public Message get(int i) {
+        if (i < 0 || i >= size)
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        return Message.of(ring[(head + i) & (capacity - 1)]);
+    }
+
+    public boolean contains(Message message) {
+        return (present & (1L << message.ordinal())) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        present = 0;
+    }
+}
@@ -0,0 +1,194 @@
+package bysen;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Latency and throughput metrics for turns and frames. Metrics are off unless the program
+ * is started with {@code -Dbysen.metrics=true}; the switch is a static final field, so the
+ * JIT removes the timing code when they are off. When on, they are shown through JMX as
+ * {@value #objectName} and, with {@code -Dbysen.metrics.dump=seconds}, printed periodically.
+ * <p>
+ * Code is timed like this:
+ * <pre>
+ *   long start = Metrics.start();
+ *   ...
+ *   Metrics.stop(Metrics.Timer.TURN, start);
+ * </pre>
+ */
+public final class Metrics implements MetricsMXBean {
+    static final boolean enabled = Boolean.getBoolean("bysen.metrics");
+    static final String objectName = "bysen:type=Metrics";
+
+    /**
+     * The timed parts of the program.
+     */
+    public enum Timer {
+        /** From the click or request to the end of the engine's turn. */
+        TURN,
+        PAINT,
+        DRAW_ROOMS,
+        DRAW_PLAYER,
+        DRAW_START_SCREEN,
+        DRAW_MESSAGE;
+
+        final Histogram histogram = new Histogram();
+    }
+
+    static final Metrics instance = new Metrics();
+
+    private final LongAdder turns = new LongAdder();
+    private final AtomicLongArray outcomes = new AtomicLongArray(Outcome.values().length);
+    private volatile long startTime = System.nanoTime();
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the start time of a timed part, or 0 when metrics are off.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since {@code start} in the timer's histogram.
+     */
+    public static void stop(Timer timer, long start) {
+        if (enabled)
+            timer.histogram.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Counts a finished turn and its outcome.
+     */
+    public static void turn(Outcome outcome) {
+        if (enabled) {
+            instance.turns.increment();
+            if (outcome != null)
+                instance.outcomes.incrementAndGet(outcome.ordinal());
+        }
+    }
+
+    /**
+     * Registers the MBean and starts the periodic dump if metrics are on.
+     */
+    public static void install() {
+        if (!enabled)
+            return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(objectName));
+        } catch (JMException e) {
+            System.err.println("Cannot register " + objectName + ": " + e.getMessage());
+        }
+        long seconds = Long.getLong("bysen.metrics.dump", 0);
+        if (seconds > 0)
+            startDump(seconds, System.out);
+    }
+
+    /**
+     * Prints the metrics at a fixed rate on a daemon thread.
+     *
+     * @param seconds The time between two dumps.
+     * @param out The stream to print to.
+     * @return The executor, which can be shut down to stop the dump.
+     */
+    static ScheduledExecutorService startDump(long seconds, PrintStream out) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> out.print(instance.dump()), seconds, seconds, TimeUnit.SECONDS);
+        return executor;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public long getTurnCount() {
+        return turns.sum();
+    }
+
+    @Override
+    public double getTurnsPerSecond() {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        return seconds > 0 ? turns.sum() / seconds : 0;
+    }
+
+    private static Map<String, Long> byTimer(ToLongFunction<Histogram> value) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Timer timer : Timer.values())
+            map.put(timer.name(), value.applyAsLong(timer.histogram));
+        return map;
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        return byTimer(Histogram::getCount);
+    }
+
+    @Override
+    public Map<String, Long> getP50() {
+        return byTimer(h -> h.getPercentile(50));
+    }
+
+    @Override
+    public Map<String, Long> getP99() {
+        return byTimer(h -> h.getPercentile(99));
+    }
+
+    @Override
+    public Map<String, Long> getMax() {
+        return byTimer(Histogram::getMax);
+    }
+
+    @Override
+    public Map<String, Long> getOutcomeCounts() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Outcome outcome : Outcome.values())
+            map.put(outcome.name(), outcomes.get(outcome.ordinal()));
+        return map;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Metrics: %d turns, %.1f turns/s%n", getTurnCount(), getTurnsPerSecond()));
+        for (Timer timer : Timer.values()) {
+            Histogram h = timer.histogram;
+            if (h.getCount() > 0)
+                text.append(String.format("  %-18s count %8d  p50 %9.1f us  p99 %9.1f us  max %9.1f us%n",
+                        timer, h.getCount(), h.getPercentile(50) / 1e3, h.getPercentile(99) / 1e3, h.getMax() / 1e3));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            long count = outcomes.get(outcome.ordinal());
+            if (count > 0)
+                text.append(String.format("  %-28s %8d%n", outcome, count));
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (Timer timer : Timer.values())
+            timer.histogram.reset();
+        turns.reset();
+        for (int i = 0; i < outcomes.length(); i++)
+            outcomes.set(i, 0);
+        startTime = System.nanoTime();
+    }
+}
@@ -0,0 +1,27 @@
+package bysen;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link Metrics}. Durations are in nanoseconds and keyed by timer name.
+ */
+public interface MetricsMXBean {
+    boolean isEnabled();
+    long getTurnCount();
+
+    /**
+     * Returns the turns per second since the metrics were installed.
+     */
+    double getTurnsPerSecond();
+    Map<String, Long> getCounts();
+    Map<String, Long> getP50();
+    Map<String, Long> getP99();
+    Map<String, Long> getMax();
+    Map<String, Long> getOutcomeCounts();
+
+    /**
+     * Returns the same text as the periodic dump.
+     */
+    String dump();
+    void reset();
+}
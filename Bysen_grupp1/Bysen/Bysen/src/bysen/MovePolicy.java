@@ -0,0 +1,61 @@
+package bysen;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A move policy decides what a simulated player does on each turn.
+ * Actions are encoded as ints so that a turn does not allocate:
+ * a room index means move there, and {@link #throwNet(int)} encodes a net throw.
+ */
+public interface MovePolicy {
+
+    /**
+     * Returns the action that moves the player to the given room.
+     */
+    static int move(int room) {
+        return room;
+    }
+
+    /**
+     * Returns the action that throws a net at the given room.
+     */
+    static int throwNet(int room) {
+        return ~room;
+    }
+
+    static boolean isThrow(int action) {
+        return action < 0;
+    }
+
+    static int room(int action) {
+        return action < 0 ? ~action : action;
+    }
+
+    /**
+     * Called when a new game has started.
+     *
+     * @param engine The engine the game runs on.
+     */
+    default void newGame(GameEngine engine) {
+    }
+
+    /**
+     * Chooses the next action.
+     *
+     * @param engine The engine the game runs on.
+     * @param rand The random generator of the current worker.
+     * @return The encoded action.
+     */
+    int nextAction(GameEngine engine, RandomGenerator rand);
+
+    /**
+     * Answers the Tomte's quiz question. Guesses by default.
+     *
+     * @param engine The engine the game runs on.
+     * @param rand The random generator of the current worker.
+     * @return The index of the chosen option.
+     */
+    default int answerQuiz(GameEngine engine, RandomGenerator rand) {
+        return rand.nextInt(engine.getQuizOptionCount());
+    }
+}
@@ -0,0 +1,36 @@
+package bysen;
+
+/**
+ * Enum for the outcome of a move, net throw or quiz answer in the game engine.
+ * Each outcome knows whether it ends the game and whether the player won.
+ */
+public enum Outcome {
+    EXPLORED(false, false),
+    QUIZ(false, false),
+    QUIZ_RIGHT(false, false),
+    QUIZ_WRONG(false, false),
+    BYSEN_STAYED(false, false),
+    BYSEN_ESCAPED(false, false),
+    LOST_TO_BYSEN(true, false),
+    FELL_INTO_TROLL_RING(true, false),
+    GOT_SICK(true, false),
+    BYSEN_WOKE(true, false),
+    OUT_OF_NETS(true, false),
+    CAUGHT_BYSEN(true, true),
+    INVALID(false, false);
+
+    Outcome(boolean gameOver, boolean win) {
+        this.gameOver = gameOver;
+        this.win = win;
+    }
+    final boolean gameOver;
+    final boolean win;
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isWin() {
+        return win;
+    }
+}
@@ -0,0 +1,81 @@
+package bysen;
+
+/**
+ * The results of one player on a {@link Leaderboard}. A player ranks above another with
+ * more wins, and with equal wins, with a win in fewer turns. Both only ever get better,
+ * so a player only ever moves up the leaderboard.
+ */
+public final class PlayerStats {
+    final int id;
+    final String name;
+    int games, wins, bestTurns = Integer.MAX_VALUE;
+    long turns, netsUsed;
+    int topIndex = -1; // position in the leaderboard's top list, or -1
+
+    PlayerStats(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+    public int getGames() {
+        return games;
+    }
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Returns the fewest turns the player has won in, or 0 if the player has not won.
+     */
+    public int getBestTurns() {
+        return wins == 0 ? 0 : bestTurns;
+    }
+    public long getTurns() {
+        return turns;
+    }
+    public long getNetsUsed() {
+        return netsUsed;
+    }
+
+    void record(Outcome outcome, int netsUsed, int turns) {
+        games++;
+        this.turns += turns;
+        this.netsUsed += netsUsed;
+        if (outcome.isWin()) {
+            wins++;
+            bestTurns = Math.min(bestTurns, turns);
+        }
+    }
+
+    /**
+     * Returns true if this player ranks above the other.
+     */
+    boolean ranksAbove(PlayerStats other) {
+        if (wins != other.wins)
+            return wins > other.wins;
+        if (bestTurns != other.bestTurns)
+            return bestTurns < other.bestTurns;
+        return id < other.id;
+    }
+
+    /**
+     * Returns a copy that does not change when the leaderboard does.
+     */
+    PlayerStats copy() {
+        PlayerStats copy = new PlayerStats(id, name);
+        copy.games = games;
+        copy.wins = wins;
+        copy.bestTurns = bestTurns;
+        copy.turns = turns;
+        copy.netsUsed = netsUsed;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + wins + " of " + games + (wins == 0 ? "" : ", best " + bestTurns + " turns");
+    }
+}
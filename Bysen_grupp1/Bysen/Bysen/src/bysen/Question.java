@@ -0,0 +1,47 @@
+package bysen;
+
+import java.util.Objects;
+
+/**
+ * A quiz question from the Tomte, with its options and the index of the right one.
+ */
+public final class Question {
+    private final String text;
+    private final String[] options;
+    private final int correctAnswer;
+
+    /**
+     * @param text The question.
+     * @param options The options the player chooses from.
+     * @param correctAnswer The index of the right option.
+     */
+    public Question(String text, String[] options, int correctAnswer) {
+        this.text = Objects.requireNonNull(text, "Question cannot be null");
+        if (options == null)
+            throw new NullPointerException("Options cannot be null");
+        if (options.length < 2)
+            throw new IllegalArgumentException("A question needs at least two options");
+        for (String option : options)
+            Objects.requireNonNull(option, "Option cannot be null");
+        if (correctAnswer < 0 || correctAnswer >= options.length)
+            throw new IllegalArgumentException("Correct answer must be one of the options: " + correctAnswer);
+        this.options = options.clone();
+        this.correctAnswer = correctAnswer;
+    }
+
+    public String getText() {
+        return text;
+    }
+    public String[] getOptions() {
+        return options.clone();
+    }
+    public int getOptionCount() {
+        return options.length;
+    }
+    String getOption(int i) {
+        return options[i];
+    }
+    public int getCorrectAnswer() {
+        return correctAnswer;
+    }
+}
@@ -0,0 +1,79 @@
+package bysen;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * The questions the Tomte can ask, by index. A bank may be shared by many engines, so
+ * implementations must be safe to read from several threads.
+ */
+public interface QuizBank {
+
+    /**
+     * Returns the number of questions.
+     */
+    int size();
+
+    /**
+     * Returns a question.
+     *
+     * @param index The index of the question, from 0 to {@link #size()} - 1.
+     */
+    Question question(int index);
+
+    /**
+     * Returns a CRC32C of the questions, so that a replay can check that it runs against
+     * the bank the session was recorded with. It is taken over the questions encoded as in
+     * a {@link QuizFile}, so banks with the same questions in the same order have the same
+     * checksum however they are stored.
+     */
+    default int checksum() {
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < size(); i++) {
+            Question question = question(i);
+            crc.update(question.getCorrectAnswer());
+            crc.update(question.getOptionCount());
+            update(crc, question.getText());
+            for (int option = 0; option < question.getOptionCount(); option++)
+                update(crc, question.getOption(option));
+        }
+        return (int) crc.getValue();
+    }
+
+    private static void update(CRC32C crc, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        crc.update(bytes.length);
+        crc.update(bytes.length >>> 8);
+        crc.update(bytes);
+    }
+
+    /**
+     * Returns a bank of questions held in memory.
+     */
+    static QuizBank of(Question... questions) {
+        if (questions.length == 0)
+            throw new IllegalArgumentException("A quiz bank needs at least one question");
+        Question[] copy = questions.clone();
+        return new QuizBank() {
+            @Override
+            public int size() {
+                return copy.length;
+            }
+            @Override
+            public Question question(int index) {
+                return copy[index];
+            }
+        };
+    }
+
+    /**
+     * The questions the game has always had.
+     */
+    QuizBank builtIn = of(
+            new Question("What is the capital of France?",
+                    new String[]{"Paris", "London", "Berlin", "Rome"}, 0),
+            new Question("What is the largest planet in our solar system?",
+                    new String[]{"Jupiter", "Saturn", "Uranus", "Neptune"}, 0),
+            new Question("What is the smallest country in the world?",
+                    new String[]{"Vatican City", "Monaco", "Nauru", "Tuvalu"}, 0));
+}
@@ -0,0 +1,249 @@
+package bysen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32C;
+
+/**
+ * A quiz bank in a file that is mapped into memory. Opening the file only checks the
+ * header; a question is decoded the first time it is asked for, and the most recently
+ * used questions are kept in a bounded LRU cache.
+ * <p>
+ * The file starts with a header of magic, version and question count, followed by an
+ * index of count + 1 offsets from the start of the file, so that question i lies between
+ * offsets i and i + 1. Each question is stored as:
+ * <pre>
+ *   byte    index of the correct option
+ *   byte    number of options
+ *   string  question, then each option: an unsigned short length and UTF-8 bytes
+ * </pre>
+ * All numbers are little-endian.
+ */
+public final class QuizFile implements QuizBank {
+    static final int magic = 0x51535942; // "BYSQ"
+    static final int version = 1;
+    static final int headerSize = 12;
+    static final int defaultCacheSize = 1024;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final Map<Integer, Question> cache;
+    private long hits, misses;
+
+    private QuizFile(ByteBuffer buffer, int count, int cacheSize) {
+        this.buffer = buffer;
+        this.count = count;
+        this.cache = new LinkedHashMap<>(Math.min(cacheSize, 1 << 16) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Question> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Maps a quiz file into memory.
+     *
+     * @param file The file written by {@link #write}.
+     * @param cacheSize The number of decoded questions to keep.
+     * @return The bank.
+     */
+    public static QuizFile open(Path file, int cacheSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), cacheSize);
+        }
+    }
+
+    public static QuizFile open(Path file) throws IOException {
+        return open(file, defaultCacheSize);
+    }
+
+    /**
+     * Reads a bank from a buffer that starts with the header. Only the header is read.
+     *
+     * @param buffer The buffer.
+     * @param cacheSize The number of decoded questions to keep.
+     * @return The bank, backed by the buffer.
+     */
+    public static QuizFile read(ByteBuffer buffer, int cacheSize) {
+        if (cacheSize < 1)
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < headerSize || buffer.getInt(0) != magic)
+            throw new IllegalArgumentException("Not a quiz file");
+        if (buffer.getInt(4) != version)
+            throw new IllegalArgumentException("Unsupported quiz file version: " + buffer.getInt(4));
+        int count = buffer.getInt(8);
+        if (count < 1 || headerSize + (count + 1L) * Integer.BYTES > buffer.limit()
+                || buffer.getInt(headerSize + count * Integer.BYTES) > buffer.limit())
+            throw new IllegalArgumentException("Quiz file is truncated");
+        return new QuizFile(buffer, count, cacheSize);
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public Question question(int index) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("No question " + index + " of " + count);
+        synchronized (cache) {
+            Question question = cache.get(index);
+            if (question != null) {
+                hits++;
+                return question;
+            }
+            misses++;
+        }
+        Question question = decode(index);
+        synchronized (cache) {
+            cache.put(index, question);
+        }
+        return question;
+    }
+
+    /**
+     * Decodes a question from the file.
+     */
+    private Question decode(int index) {
+        int position = buffer.getInt(headerSize + index * Integer.BYTES);
+        int end = buffer.getInt(headerSize + (index + 1) * Integer.BYTES);
+        if (position < 0 || end > buffer.limit() || end - position < 2)
+            throw new IllegalStateException("Quiz file is corrupt at question " + index);
+        int correct = buffer.get(position) & 0xFF;
+        String[] options = new String[buffer.get(position + 1) & 0xFF];
+        position += 2;
+        byte[] bytes = new byte[end - position];
+        buffer.get(position, bytes);
+        int offset = 0;
+        String text = null;
+        for (int i = -1; i < options.length; i++) {
+            int length = (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+            String string = new String(bytes, offset + 2, length, StandardCharsets.UTF_8);
+            offset += 2 + length;
+            if (i == -1)
+                text = string;
+            else
+                options[i] = string;
+        }
+        return new Question(text, options, correct);
+    }
+
+    /**
+     * Returns the checksum of the questions. It is taken straight over the encoded questions
+     * in the file, without decoding them.
+     */
+    @Override
+    public int checksum() {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(buffer.getInt(headerSize + count * Integer.BYTES))
+                .position(buffer.getInt(headerSize)));
+        return (int) crc.getValue();
+    }
+
+    public long getCacheHits() {
+        synchronized (cache) {
+            return hits;
+        }
+    }
+    public long getCacheMisses() {
+        synchronized (cache) {
+            return misses;
+        }
+    }
+    public int getCachedCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Writes questions to a quiz file.
+     *
+     * @param file The file to write.
+     * @param questions The questions.
+     */
+    public static void write(Path file, List<Question> questions) throws IOException {
+        if (questions.isEmpty())
+            throw new IllegalArgumentException("A quiz bank needs at least one question");
+        byte[][][] encoded = new byte[questions.size()][][];
+        long size = headerSize + (questions.size() + 1L) * Integer.BYTES;
+        for (int q = 0; q < questions.size(); q++) {
+            Question question = questions.get(q);
+            if (question.getOptionCount() > 255)
+                throw new IllegalArgumentException("A question can have at most 255 options");
+            byte[][] strings = new byte[question.getOptionCount() + 1][];
+            strings[0] = utf8(question.getText());
+            for (int i = 0; i < question.getOptionCount(); i++)
+                strings[i + 1] = utf8(question.getOption(i));
+            size += 2;
+            for (byte[] string : strings)
+                size += 2 + string.length;
+            encoded[q] = strings;
+        }
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Quiz file would be larger than 2 GiB");
+
+        ByteBuffer out = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(magic).putInt(version).putInt(questions.size());
+        int offset = headerSize + (questions.size() + 1) * Integer.BYTES;
+        for (int q = 0; q < questions.size(); q++) {
+            out.putInt(offset);
+            offset += 2;
+            for (byte[] string : encoded[q])
+                offset += 2 + string.length;
+        }
+        out.putInt(offset);
+        for (int q = 0; q < questions.size(); q++) {
+            out.put((byte) questions.get(q).getCorrectAnswer()).put((byte) (encoded[q].length - 1));
+            for (byte[] string : encoded[q])
+                out.putShort((short) string.length).put(string);
+        }
+        out.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining())
+                channel.write(out);
+        }
+    }
+
+    private static byte[] utf8(String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF)
+            throw new IllegalArgumentException("Quiz text is longer than 65535 bytes");
+        return bytes;
+    }
+
+    /**
+     * Writes a generated arithmetic quiz bank, for trying out large banks.
+     * Arguments: file [questions] [seed]
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args[0]);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        SplittableRandom rand = new SplittableRandom(args.length > 2 ? Long.parseLong(args[2]) : 42);
+        List<Question> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int a = rand.nextInt(1000), b = rand.nextInt(1000);
+            int correct = rand.nextInt(4), step = 1 + rand.nextInt(9);
+            String[] options = new String[4];
+            for (int o = 0; o < options.length; o++)
+                options[o] = Integer.toString(a + b + (o - correct) * step);
+            questions.add(new Question("What is " + a + " + " + b + "?", options, correct));
+        }
+        write(file, questions);
+        System.out.println("Wrote " + count + " questions to " + file);
+    }
+}
@@ -0,0 +1,34 @@
+package bysen;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A move policy that walks to random linked rooms and throws a net at a random
+ * linked room when it hears Bysen.
+ */
+public class RandomMovePolicy implements MovePolicy {
+    private final double throwChance;
+
+    public RandomMovePolicy() {
+        this(1.0 / 3);
+    }
+
+    /**
+     * @param throwChance The chance of throwing a net when Bysen can be heard.
+     */
+    public RandomMovePolicy(double throwChance) {
+        if (throwChance < 0 || throwChance > 1)
+            throw new IllegalArgumentException("Throw chance must be between 0 and 1");
+        this.throwChance = throwChance;
+    }
+
+    @Override
+    public int nextAction(GameEngine engine, RandomGenerator rand) {
+        GameMap map = engine.getMap();
+        int currRoom = engine.getCurrRoom();
+        int room = map.link(currRoom, rand.nextInt(map.degree(currRoom)));
+        if (engine.isWarned(Creatures.Bysen) && rand.nextDouble() < throwChance)
+            return MovePolicy.throwNet(room);
+        return MovePolicy.move(room);
+    }
+}
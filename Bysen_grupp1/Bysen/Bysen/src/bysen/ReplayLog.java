@@ -0,0 +1,146 @@
+package bysen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A recorded session: the seed of the engine's random generator and one fixed-width record
+ * per command. Every record is an int:
+ * <pre>
+ *   bits 31-30  command type (START, MOVE, THROW, ANSWER)
+ *   bits 29-26  outcome ordinal, 0 for START
+ *   bits 25-0   room or answer, signed
+ * </pre>
+ * The file starts with a header of magic, version, seed, room count, record count, the
+ * size and {@linkplain QuizBank#checksum checksum} of the quiz bank, and flags for the game
+ * rules that were on, followed by the records, all little-endian. The Tomte draws its
+ * questions with the engine's random generator, so a session only replays against the same
+ * bank.
+ */
+public final class ReplayLog {
+    static final int magic = 0x52535942; // "BYSR"
+    static final int version = 3;
+    static final int headerSize = 36;
+    static final int countOffset = 20;
+    static final int quizOffset = 24;
+    static final int flagsOffset = 32;
+    static final int recordSize = Integer.BYTES;
+
+    /** Flag for sessions where the creatures wander, see {@link GameEngine#setWandering}. */
+    public static final int WANDERING = 1;
+
+    static final int START = 0, MOVE = 1, THROW = 2, ANSWER = 3;
+    private static final int valueBits = 26;
+    private static final int valueMask = (1 << valueBits) - 1;
+    private static final Outcome[] outcomes = Outcome.values();
+
+    private final long seed;
+    private final int roomCount;
+    private final int quizSize, quizChecksum;
+    private final int flags;
+    private final IntBuffer records;
+
+    private ReplayLog(long seed, int roomCount, int quizSize, int quizChecksum, int flags, IntBuffer records) {
+        this.seed = seed;
+        this.roomCount = roomCount;
+        this.quizSize = quizSize;
+        this.quizChecksum = quizChecksum;
+        this.flags = flags;
+        this.records = records;
+    }
+
+    /**
+     * Maps a log file into memory.
+     *
+     * @param file The file written by a {@link ReplayRecorder}.
+     * @return The log.
+     */
+    public static ReplayLog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Reads a log from a buffer that starts with the header.
+     *
+     * @param buffer The buffer.
+     * @return The log, backed by the buffer.
+     */
+    public static ReplayLog read(ByteBuffer buffer) {
+        buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < headerSize || buffer.getInt(0) != magic)
+            throw new IllegalArgumentException("Not a replay log");
+        if (buffer.getInt(4) != version)
+            throw new IllegalArgumentException("Unsupported replay log version: " + buffer.getInt(4));
+        long seed = buffer.getLong(8);
+        int roomCount = buffer.getInt(16);
+        int count = buffer.getInt(countOffset);
+        if (count < 0 || (long) headerSize + (long) count * recordSize > buffer.limit())
+            throw new IllegalArgumentException("Replay log is truncated");
+        buffer.position(headerSize).limit(headerSize + count * recordSize);
+        int quizSize = buffer.getInt(quizOffset);
+        int quizChecksum = buffer.getInt(quizOffset + 4);
+        int flags = buffer.getInt(flagsOffset);
+        return new ReplayLog(seed, roomCount, quizSize, quizChecksum, flags,
+                buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
+    }
+
+    static int encode(int type, Outcome outcome, int value) {
+        int ordinal = outcome == null ? 0 : outcome.ordinal();
+        return type << 30 | ordinal << valueBits | value & valueMask;
+    }
+
+    static int type(int record) {
+        return record >>> 30;
+    }
+
+    static Outcome outcome(int record) {
+        return outcomes[record >>> valueBits & 0xF];
+    }
+
+    static int value(int record) {
+        return record << (32 - valueBits) >> (32 - valueBits);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+    public int getRoomCount() {
+        return roomCount;
+    }
+    public int size() {
+        return records.limit();
+    }
+    public int getFlags() {
+        return flags;
+    }
+
+    /**
+     * Returns true if the creatures wandered in the session.
+     */
+    public boolean isWandering() {
+        return (flags & WANDERING) != 0;
+    }
+
+    /**
+     * Returns true if the session was recorded with the given quiz bank, judged by its size
+     * and checksum.
+     */
+    public boolean isRecordedWith(QuizBank quizBank) {
+        return quizBank.size() == quizSize && quizBank.checksum() == quizChecksum;
+    }
+
+    /**
+     * Returns the record at the given index.
+     */
+    int record(int i) {
+        return records.get(i);
+    }
+}
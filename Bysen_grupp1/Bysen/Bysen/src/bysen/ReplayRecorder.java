@@ -0,0 +1,132 @@
+package bysen;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends the commands of a session to a memory-mapped {@link ReplayLog} file. The file is
+ * mapped in chunks; the record count in the header is updated after every record, so the
+ * log stays readable even if the program stops without closing the recorder.
+ */
+public class ReplayRecorder implements Closeable {
+    static final int chunkSize = 1 << 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer chunk;
+    private long chunkStart;
+    private int count;
+
+    /**
+     * Creates the log file, replacing any old file.
+     *
+     * @param file The file to write.
+     * @param seed The seed of the engine's random generator.
+     * @param roomCount The number of rooms of the map that is played.
+     */
+    public ReplayRecorder(Path file, long seed, int roomCount) throws IOException {
+        this(file, seed, roomCount, QuizBank.builtIn);
+    }
+
+    /**
+     * Creates the log file, replacing any old file.
+     *
+     * @param file The file to write.
+     * @param seed The seed of the engine's random generator.
+     * @param roomCount The number of rooms of the map that is played.
+     * @param quizBank The questions the Tomte asks.
+     */
+    public ReplayRecorder(Path file, long seed, int roomCount, QuizBank quizBank) throws IOException {
+        this(file, seed, roomCount, quizBank, 0);
+    }
+
+    /**
+     * Creates the log file, replacing any old file.
+     *
+     * @param file The file to write.
+     * @param seed The seed of the engine's random generator.
+     * @param roomCount The number of rooms of the map that is played.
+     * @param quizBank The questions the Tomte asks.
+     * @param flags The game rules that are on, such as {@link ReplayLog#WANDERING}.
+     */
+    public ReplayRecorder(Path file, long seed, int roomCount, QuizBank quizBank, int flags) throws IOException {
+        if (quizBank == null)
+            throw new NullPointerException("Quiz bank cannot be null");
+        int quizChecksum = quizBank.checksum();
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        header = map(0, ReplayLog.headerSize);
+        header.putInt(0, ReplayLog.magic);
+        header.putInt(4, ReplayLog.version);
+        header.putLong(8, seed);
+        header.putInt(16, roomCount);
+        header.putInt(ReplayLog.countOffset, 0);
+        header.putInt(ReplayLog.quizOffset, quizBank.size());
+        header.putInt(ReplayLog.quizOffset + 4, quizChecksum);
+        header.putInt(ReplayLog.flagsOffset, flags);
+        chunkStart = ReplayLog.headerSize;
+        chunk = map(chunkStart, chunkSize);
+    }
+
+    private MappedByteBuffer map(long position, int size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Records a command and the outcome the engine gave it.
+     *
+     * @param command The command. NEW_GAME is not recorded, as it does not change the engine.
+     * @param outcome The outcome, or null for START.
+     */
+    public void record(Command command, Outcome outcome) {
+        int type;
+        switch (command.type) {
+            case START: type = ReplayLog.START; break;
+            case MOVE: type = ReplayLog.MOVE; break;
+            case THROW: type = ReplayLog.THROW; break;
+            case ANSWER: type = ReplayLog.ANSWER; break;
+            default: return;
+        }
+        append(ReplayLog.encode(type, outcome, command.value));
+    }
+
+    void append(int record) {
+        if (!chunk.hasRemaining()) {
+            try {
+                chunkStart += chunkSize;
+                chunk = map(chunkStart, chunkSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        chunk.putInt(record);
+        header.putInt(ReplayLog.countOffset, ++count);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Writes the log to disk and cuts off the unused end of the last chunk.
+     */
+    @Override
+    public void close() throws IOException {
+        chunk.force();
+        header.force();
+        try {
+            channel.truncate(ReplayLog.headerSize + (long) count * ReplayLog.recordSize);
+        } catch (IOException e) {
+            // Some systems cannot truncate a mapped file; readers use the record count instead.
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,91 @@
+package bysen;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Runs a {@link ReplayLog} through the game rules and checks that every command gets the
+ * outcome that was recorded. Sessions are recorded with a {@link SplittableRandom} seeded
+ * from the log, so the same commands always give the same game.
+ */
+public final class Replayer {
+    static final String replayName = "Replay";
+
+    private Replayer() {
+    }
+
+    /**
+     * Replays a log on the given map with the built-in quiz questions.
+     *
+     * @param log The log to replay.
+     * @param map The map the session was played on.
+     * @return The index of the first record whose outcome differs, or -1 if all match.
+     */
+    public static int replay(ReplayLog log, GameMap map) {
+        return replay(log, map, QuizBank.builtIn);
+    }
+
+    /**
+     * Replays a log on the given map. The creatures wander if they did in the session.
+     *
+     * @param log The log to replay.
+     * @param map The map the session was played on.
+     * @param quizBank The quiz bank the session was played with.
+     * @return The index of the first record whose outcome differs, or -1 if all match.
+     */
+    public static int replay(ReplayLog log, GameMap map, QuizBank quizBank) {
+        if (map.getRoomCount() != log.getRoomCount())
+            throw new IllegalArgumentException("The log was recorded on a map with "
+                    + log.getRoomCount() + " rooms");
+        if (!log.isRecordedWith(quizBank))
+            throw new IllegalArgumentException("The log was recorded with another quiz bank");
+        GameEngine engine = new GameEngine(map, new SplittableRandom(log.getSeed()));
+        engine.setQuizBank(quizBank);
+        engine.setWandering(log.isWandering());
+        for (int i = 0, n = log.size(); i < n; i++) {
+            int record = log.record(i);
+            int value = ReplayLog.value(record);
+            Outcome outcome;
+            switch (ReplayLog.type(record)) {
+                case ReplayLog.START:
+                    engine.startNewGame(replayName);
+                    engine.clearMessages();
+                    continue;
+                case ReplayLog.MOVE: outcome = engine.move(value); break;
+                case ReplayLog.THROW: outcome = engine.throwNet(value); break;
+                default: outcome = engine.answerQuiz(value); break;
+            }
+            engine.clearMessages();
+            if (outcome != ReplayLog.outcome(record))
+                return i;
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: Replayer <log file> [times] [quiz file]");
+            return;
+        }
+        ReplayLog log = ReplayLog.open(Path.of(args[0]));
+        int times = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        String quizFile = args.length > 2 ? args[2] : System.getProperty(Game.quizProperty);
+        QuizBank quizBank = quizFile == null ? QuizBank.builtIn : QuizFile.open(Path.of(quizFile));
+        GameMap map = GameMap.dodecahedron();
+        long startTime = System.nanoTime();
+        int mismatch = -1;
+        if (!log.isRecordedWith(quizBank)) {
+            System.err.println("The log was recorded with another quiz bank; give its file as the third argument");
+            return;
+        }
+        for (int t = 0; t < times && mismatch == -1; t++)
+            mismatch = replay(log, map, quizBank);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        if (mismatch == -1)
+            System.out.printf("%d records replayed, all outcomes match%n", log.size());
+        else
+            System.out.printf("Outcome differs at record %d%n", mismatch);
+        System.out.printf("%.0f turns/s%n", (double) log.size() * times / seconds);
+    }
+}
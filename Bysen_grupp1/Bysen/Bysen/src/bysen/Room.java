@@ -1,3 +1,5 @@
+package bysen;
+
 /**
  * Represents a room in the game.
  */
@@ -0,0 +1,38 @@
+package bysen;
+
+/**
+ * Shortest-path distances between rooms, counted in links, and the first link to take
+ * towards a room. Distances are computed once per map, see {@link GameMap#getDistances()},
+ * and every query is a few array reads.
+ */
+public interface RoomDistances {
+    /**
+     * The distance between rooms that cannot reach each other.
+     */
+    int unreachable = Integer.MAX_VALUE;
+
+    /**
+     * Returns the number of links on a shortest path between two rooms, or
+     * {@link #unreachable}. An approximate table never returns more than the true distance.
+     */
+    int distance(int from, int to);
+
+    /**
+     * Returns the linked room to move to on the way from one room to another, or -1 if
+     * the rooms are the same or cannot reach each other.
+     */
+    int nextHop(int from, int to);
+
+    /**
+     * Returns true if the distances and next hops are exact.
+     */
+    boolean isExact();
+
+    /**
+     * Computes the distances of a map: an exact table for small maps, landmarks for large ones.
+     */
+    static RoomDistances of(GameMap map) {
+        RoomDistances table = DistanceTable.build(map);
+        return table != null ? table : new LandmarkDistances(map, LandmarkDistances.defaultLandmarks);
+    }
+}
@@ -0,0 +1,140 @@
+package bysen;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks random rooms that do not hold a given creature, for placing and teleporting creatures.
+ * A few random guesses are tried first, which is enough while the map is mostly free.
+ * If they all miss, the free rooms are counted in the creature's bit mask and one of them
+ * is picked directly, so a pick never takes more than one pass over the mask.
+ */
+public class RoomSampler {
+    static final int maxAttempts = 32;
+
+    private final GameMap map;
+    private final CreatureBoard board;
+    private final RandomGenerator rand;
+    private int[] excluded = new int[8];
+
+    public RoomSampler(GameMap map, CreatureBoard board, RandomGenerator rand) {
+        this.map = map;
+        this.board = board;
+        this.rand = rand;
+    }
+
+    /**
+     * Returns a random room that does not hold the creature and is not too close to a given room.
+     *
+     * @param creature The creature that must not be in the room.
+     * @param near The room to keep away from, or -1.
+     * @param minDistance The fewest links the room may be from the near room: 0 to allow any
+     *                    room, 1 to leave out the near room, 2 to also leave out the rooms
+     *                    linked to it, and so on. Distances from {@link GameMap#getDistances()}.
+     * @return The index of the room, or -1 if no room qualifies.
+     */
+    public int sample(Creatures creature, int near, int minDistance) {
+        if (minDistance < 0)
+            throw new IllegalArgumentException("Min distance cannot be negative");
+        if (near == -1)
+            minDistance = 0;
+        int roomCount = map.getRoomCount();
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            int room = rand.nextInt(roomCount);
+            if (!board.contains(room, creature) && !tooClose(room, near, minDistance))
+                return room;
+        }
+        return sampleExactly(creature, near, minDistance);
+    }
+
+    private boolean tooClose(int room, int near, int minDistance) {
+        if (minDistance > 2)
+            return map.getDistances().distance(near, room) < minDistance;
+        return minDistance >= 1 && room == near
+                || minDistance >= 2 && map.isLinked(near, room);
+    }
+
+    /**
+     * Picks uniformly among all free rooms that are not too close, with one pass over the mask.
+     */
+    private int sampleExactly(Creatures creature, int near, int minDistance) {
+        int excludedCount = collectExcluded(creature, near, minDistance);
+        int words = board.getWords();
+        int free = 0;
+        for (int word = 0; word < words; word++)
+            free += Long.bitCount(freeRooms(creature, word));
+        free -= excludedCount;
+        if (free <= 0)
+            return -1;
+
+        int k = rand.nextInt(free);
+        int next = 0; // the next excluded room, they are sorted
+        for (int word = 0; word < words; word++) {
+            long bits = freeRooms(creature, word);
+            while (next < excludedCount && excluded[next] >>> 6 == word)
+                bits &= ~(1L << excluded[next++]);
+            int count = Long.bitCount(bits);
+            if (k < count) {
+                for (int i = 0; i < k; i++)
+                    bits &= bits - 1;
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            k -= count;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the rooms in a word of the mask that do not hold the creature.
+     */
+    private long freeRooms(Creatures creature, int word) {
+        long bits = ~board.word(creature, word);
+        int rest = map.getRoomCount() - (word << 6);
+        if (rest < 64)
+            bits &= (1L << rest) - 1;
+        return bits;
+    }
+
+    /**
+     * Collects the free rooms that are too close into the sorted excluded array.
+     *
+     * @return The number of excluded rooms.
+     */
+    private int collectExcluded(Creatures creature, int near, int minDistance) {
+        int count = 0;
+        if (minDistance > 2) {
+            // The rooms are visited in order, so each one is added at the end
+            RoomDistances distances = map.getDistances();
+            for (int room = 0; room < map.getRoomCount(); room++)
+                if (distances.distance(near, room) < minDistance && !board.contains(room, creature))
+                    count = addExcluded(count, room);
+            return count;
+        }
+        if (minDistance >= 1 && !board.contains(near, creature))
+            count = addExcluded(count, near);
+        if (minDistance >= 2) {
+            for (int i = map.linkStart(near), end = map.linkEnd(near); i < end; i++) {
+                int link = map.linkTarget(i);
+                if (!board.contains(link, creature))
+                    count = addExcluded(count, link);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Inserts a room into the sorted excluded array, unless it is already there.
+     */
+    private int addExcluded(int count, int room) {
+        int i = count;
+        while (i > 0 && excluded[i - 1] > room)
+            i--;
+        if (i > 0 && excluded[i - 1] == room)
+            return count;
+        if (count == excluded.length)
+            excluded = Arrays.copyOf(excluded, count * 2);
+        System.arraycopy(excluded, i, excluded, i + 1, count - i);
+        excluded[i] = room;
+        return count + 1;
+    }
+}
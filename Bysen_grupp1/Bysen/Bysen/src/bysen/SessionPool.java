@@ -0,0 +1,82 @@
+package bysen;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out game engines for sessions and takes them back when the sessions end, so that
+ * running many short sessions does not create a new engine for each. A released engine is
+ * reset in place and keeps its own random generator. The pool keeps at most a fixed number
+ * of idle engines; engines released beyond that are left to the garbage collector.
+ */
+public class SessionPool {
+    private final GameMap map;
+    private final BlockingQueue<GameEngine> idle;
+    private final SplittableRandom seeds;
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * @param map The map all engines play on.
+     * @param capacity The number of idle engines the pool keeps.
+     * @param seed The seed the engines' random generators are split from.
+     */
+    public SessionPool(GameMap map, int capacity, long seed) {
+        if (map == null)
+            throw new NullPointerException("Map cannot be null");
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        this.map = map;
+        this.idle = new ArrayBlockingQueue<>(capacity);
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Returns an idle engine, or a new one if there is none. The engine has no game running.
+     */
+    public GameEngine acquire() {
+        GameEngine engine = idle.poll();
+        if (engine == null) {
+            SplittableRandom rand;
+            synchronized (seeds) {
+                rand = seeds.split();
+            }
+            engine = new GameEngine(map, rand);
+            created.incrementAndGet();
+        }
+        return engine;
+    }
+
+    /**
+     * Resets an engine and returns it to the pool.
+     *
+     * @param engine An engine from this pool. It must not be used after it is released.
+     */
+    public void release(GameEngine engine) {
+        if (engine == null)
+            throw new NullPointerException("Engine cannot be null");
+        if (engine.getMap() != map)
+            throw new IllegalArgumentException("The engine does not belong to this pool");
+        engine.reset();
+        idle.offer(engine);
+    }
+
+    public GameMap getMap() {
+        return map;
+    }
+
+    /**
+     * Returns the number of idle engines in the pool.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Returns the number of engines the pool has created.
+     */
+    public int getCreatedCount() {
+        return created.get();
+    }
+}
@@ -0,0 +1,150 @@
+package bysen;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Plays many games with a move policy and collects win/loss statistics.
+ * The games are split over all cores with fork/join. Each worker has its own engine,
+ * policy and random generator, and the per-worker counters are merged at the end.
+ */
+public class Simulation {
+    static final int gamesPerTask = 1 << 14;
+
+    private final int[] creatureDistribution;
+    private final int startingNets;
+    private final Supplier<? extends MovePolicy> policies;
+    private final int maxTurns;
+    private final long seed;
+
+    /**
+     * @param creatureDistribution The creatures to place in each game, see {@link GameEngine#setCreatureDistribution}.
+     * @param startingNets The number of nets the player starts with.
+     * @param policies Creates one move policy per worker.
+     * @param maxTurns The number of turns after which a game is stopped.
+     * @param seed The seed that all worker generators are derived from.
+     */
+    public Simulation(int[] creatureDistribution, int startingNets,
+                      Supplier<? extends MovePolicy> policies, int maxTurns, long seed) {
+        if (policies == null)
+            throw new NullPointerException("Policies cannot be null");
+        if (maxTurns < 1)
+            throw new IllegalArgumentException("Max turns must be at least 1");
+        GameEngine.checkCreatureDistribution(creatureDistribution);
+        if (startingNets < 1)
+            throw new IllegalArgumentException("Starting nets must be at least 1");
+        this.creatureDistribution = creatureDistribution.clone();
+        this.startingNets = startingNets;
+        this.policies = policies;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays the given number of games on the common fork/join pool.
+     *
+     * @param games The number of games to play.
+     * @return The merged counters of all workers.
+     */
+    public SimulationResult run(long games) {
+        return run(games, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays the given number of games on the given pool.
+     *
+     * @param games The number of games to play.
+     * @param pool The pool to run the workers on.
+     * @return The merged counters of all workers.
+     */
+    public SimulationResult run(long games, ForkJoinPool pool) {
+        if (games < 0)
+            throw new IllegalArgumentException("Games cannot be negative");
+        return pool.invoke(new SimulationTask(this, 0, games));
+    }
+
+    /**
+     * Plays the games from start (inclusive) to end (exclusive) on one worker.
+     * The generator is derived from the seed and the start index, so that the result
+     * does not depend on how the work was split between threads.
+     */
+    SimulationResult playGames(long start, long end) {
+        SimulationResult result = new SimulationResult(maxTurns);
+        SplittableRandom rand = new SplittableRandom(seed ^ (start * 0x9E3779B97F4A7C15L));
+        GameEngine engine = new GameEngine(rand);
+        engine.setCreatureDistribution(creatureDistribution);
+        engine.setStartingNets(startingNets);
+        MovePolicy policy = policies.get();
+        for (long i = start; i < end; i++)
+            playGame(engine, policy, rand, result);
+        return result;
+    }
+
+    private void playGame(GameEngine engine, MovePolicy policy, SplittableRandom rand, SimulationResult result) {
+        engine.startNewGame(null);
+        policy.newGame(engine);
+        for (int turns = 1; turns <= maxTurns; turns++) {
+            int action = policy.nextAction(engine, rand);
+            int room = MovePolicy.room(action);
+            Outcome outcome = MovePolicy.isThrow(action) ? engine.throwNet(room) : engine.move(room);
+            if (outcome == Outcome.QUIZ)
+                outcome = engine.answerQuiz(policy.answerQuiz(engine, rand));
+            engine.clearMessages();
+            if (outcome == Outcome.INVALID)
+                throw new IllegalStateException("Policy chose an invalid action: " + action);
+            if (outcome.isGameOver()) {
+                result.record(outcome, turns);
+                return;
+            }
+        }
+        result.recordUnfinished(maxTurns);
+    }
+
+    /**
+     * Splits a range of games in half until it is small enough for one worker.
+     */
+    private static final class SimulationTask extends RecursiveTask<SimulationResult> {
+        private static final long serialVersionUID = 1L;
+        private final transient Simulation simulation;
+        private final long start, end;
+
+        SimulationTask(Simulation simulation, long start, long end) {
+            this.simulation = simulation;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (end - start <= gamesPerTask)
+                return simulation.playGames(start, end);
+            long mid = start + (end - start) / 2;
+            SimulationTask left = new SimulationTask(simulation, start, mid);
+            left.fork();
+            SimulationResult right = new SimulationTask(simulation, mid, end).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    /**
+     * Runs a simulation from the command line.
+     * Arguments: [games] [nets] [throw chance] [seed]
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int nets = args.length > 1 ? Integer.parseInt(args[1]) : GameEngine.defaultNets;
+        double throwChance = args.length > 2 ? Double.parseDouble(args[2]) : 1.0 / 3;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        Simulation simulation = new Simulation(GameEngine.defaultCreatureDistribution, nets,
+                () -> new RandomMovePolicy(throwChance), 10_000, seed);
+        long startTime = System.nanoTime();
+        SimulationResult result = simulation.run(games);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.print(result);
+        System.out.printf("%.0f games/s on %d threads%n", games / seconds,
+                ForkJoinPool.commonPool().getParallelism());
+    }
+}
@@ -0,0 +1,113 @@
+package bysen;
+
+/**
+ * Counters collected by a simulation worker. Results from several workers are merged
+ * with {@link #merge(SimulationResult)}.
+ */
+public class SimulationResult {
+    final long[] outcomes = new long[Outcome.values().length];
+    final long[] gameLengths;
+    long games, unfinished, totalTurns;
+
+    /**
+     * @param maxTurns The highest game length that gets its own counter.
+     */
+    public SimulationResult(int maxTurns) {
+        gameLengths = new long[maxTurns + 1];
+    }
+
+    /**
+     * Records a finished game.
+     *
+     * @param outcome The outcome that ended the game.
+     * @param turns The number of turns the game took.
+     */
+    void record(Outcome outcome, int turns) {
+        games++;
+        outcomes[outcome.ordinal()]++;
+        gameLengths[Math.min(turns, gameLengths.length - 1)]++;
+        totalTurns += turns;
+    }
+
+    /**
+     * Records a game that was stopped after the maximum number of turns.
+     */
+    void recordUnfinished(int turns) {
+        games++;
+        unfinished++;
+        totalTurns += turns;
+    }
+
+    /**
+     * Adds the counters of another result to this one.
+     *
+     * @param other The result to add.
+     * @return This result.
+     */
+    public SimulationResult merge(SimulationResult other) {
+        if (other.gameLengths.length != gameLengths.length)
+            throw new IllegalArgumentException("Results have different maximum game lengths");
+        games += other.games;
+        unfinished += other.unfinished;
+        totalTurns += other.totalTurns;
+        for (int i = 0; i < outcomes.length; i++)
+            outcomes[i] += other.outcomes[i];
+        for (int i = 0; i < gameLengths.length; i++)
+            gameLengths[i] += other.gameLengths[i];
+        return this;
+    }
+
+    public long getGames() {
+        return games;
+    }
+    public long getUnfinished() {
+        return unfinished;
+    }
+    public long getCount(Outcome outcome) {
+        return outcomes[outcome.ordinal()];
+    }
+    public long getWins() {
+        long wins = 0;
+        for (Outcome outcome : Outcome.values())
+            if (outcome.isWin())
+                wins += outcomes[outcome.ordinal()];
+        return wins;
+    }
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) getWins() / games;
+    }
+    public double getMeanTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    /**
+     * Returns the game length that the given fraction of finished games do not exceed.
+     *
+     * @param fraction The fraction, between 0 and 1.
+     */
+    public int getTurnsPercentile(double fraction) {
+        long finished = games - unfinished;
+        long target = (long) Math.ceil(finished * fraction);
+        long seen = 0;
+        for (int i = 0; i < gameLengths.length; i++) {
+            seen += gameLengths[i];
+            if (seen >= target && seen > 0)
+                return i;
+        }
+        return gameLengths.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Games: %d, wins: %.2f %%, unfinished: %d%n",
+                games, 100 * getWinRate(), unfinished));
+        sb.append(String.format("Turns: mean %.2f, median %d, p90 %d, p99 %d%n",
+                getMeanTurns(), getTurnsPercentile(0.5), getTurnsPercentile(0.9), getTurnsPercentile(0.99)));
+        for (Outcome outcome : Outcome.values()) {
+            if (outcome.isGameOver())
+                sb.append(String.format("  %-22s %12d%n", outcome, outcomes[outcome.ordinal()]));
+        }
+        return sb.toString();
+    }
+}
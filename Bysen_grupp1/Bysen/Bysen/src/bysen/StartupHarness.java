@@ -0,0 +1,145 @@
+package bysen;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Measures how fast the game starts. Launches the game in a new JVM a number of times, each
+ * time with {@value StartupTimer#exitProperty} set so that it exits as soon as it is
+ * interactive, and reports the time to {@code main}, to the first paint and to interactive
+ * over the runs. A run that has not reported within {@value #runTimeoutSeconds} seconds is
+ * killed. Needs a display.
+ */
+public class StartupHarness {
+    static final long runTimeoutSeconds = 60;
+
+    private final List<String> command;
+    private final String mainClass;
+    private final long timeoutSeconds;
+    private final Histogram mainTimes = new Histogram();
+    private final Histogram firstPaintTimes = new Histogram();
+    private final Histogram interactiveTimes = new Histogram();
+
+    /**
+     * @param jvmOptions Extra options for the game's JVM, for example a heap size.
+     */
+    public StartupHarness(List<String> jvmOptions) {
+        this(jvmOptions, Main.class.getName(), runTimeoutSeconds);
+    }
+
+    /**
+     * @param jvmOptions Extra options for the JVM.
+     * @param mainClass The class to launch.
+     * @param timeoutSeconds How long a run may take before it is killed.
+     */
+    StartupHarness(List<String> jvmOptions, String mainClass, long timeoutSeconds) {
+        if (jvmOptions == null)
+            throw new NullPointerException("JVM options cannot be null");
+        command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-D" + StartupTimer.exitProperty + "=true");
+        command.addAll(jvmOptions);
+        this.mainClass = mainClass;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Launches the game once and records its times. The output is read on its own thread, so
+     * a game that hangs without printing or closing its output is still killed in time.
+     *
+     * @return The times of main, the first paint and interactive, in nanoseconds since launch.
+     * @throws IOException If the game could not be launched or did not report its times in time.
+     */
+    public long[] run() throws IOException, InterruptedException {
+        List<String> run = new ArrayList<>(command);
+        run.add("-D" + StartupTimer.launchedProperty + "=" + System.currentTimeMillis());
+        run.add(mainClass);
+        Process process = new ProcessBuilder(run).redirectErrorStream(true).start();
+        StringBuffer output = new StringBuffer();
+        CompletableFuture<long[]> report = new CompletableFuture<>();
+        Thread reader = new Thread(() -> readReport(process, output, report), "startup-output");
+        reader.setDaemon(true);
+        reader.start();
+        long[] times;
+        try {
+            times = report.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            process.destroyForcibly();
+            throw new IOException("The game did not report its startup times within "
+                    + timeoutSeconds + " s:" + System.lineSeparator() + output);
+        } catch (ExecutionException e) {
+            process.destroyForcibly();
+            throw new IOException("Cannot read the output of the game", e.getCause());
+        } finally {
+            if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS))
+                process.destroyForcibly();
+        }
+        if (times == null)
+            throw new IOException("The game did not report its startup times:" + System.lineSeparator() + output);
+        mainTimes.record(times[0]);
+        firstPaintTimes.record(times[1]);
+        interactiveTimes.record(times[2]);
+        return times;
+    }
+
+    /**
+     * Reads the output of a run until the report line, completing the report with the times,
+     * or with null if the output ends first. Other lines are kept in the output.
+     */
+    private static void readReport(Process process, StringBuffer output, CompletableFuture<long[]> report) {
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line; (line = in.readLine()) != null; ) {
+                if (line.startsWith(StartupTimer.reportPrefix + " ")) {
+                    report.complete(StartupTimer.parse(line));
+                    return;
+                }
+                output.append(line).append(System.lineSeparator());
+            }
+            report.complete(null);
+        } catch (IOException | RuntimeException e) {
+            report.completeExceptionally(e);
+        }
+    }
+
+    public String report() {
+        return String.format("Runs: %d%n", mainTimes.getCount())
+                + line("main", mainTimes)
+                + line("First paint", firstPaintTimes)
+                + line("Interactive", interactiveTimes);
+    }
+
+    private static String line(String name, Histogram times) {
+        return String.format("%-12s p50 %6.1f ms, p90 %6.1f ms, max %6.1f ms%n", name + ":",
+                times.getPercentile(50) / 1e6, times.getPercentile(90) / 1e6, times.getMax() / 1e6);
+    }
+
+    /**
+     * Measures the startup from the command line.
+     * Arguments: [runs] [JVM options for the game...]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        List<String> options = new ArrayList<>();
+        for (int i = 1; i < args.length; i++)
+            options.add(args[i]);
+        StartupHarness harness = new StartupHarness(options);
+        for (int i = 0; i < runs; i++) {
+            long[] times = harness.run();
+            System.out.printf("Run %d: main %.1f ms, first paint %.1f ms, interactive %.1f ms%n",
+                    i + 1, times[0] / 1e6, times[1] / 1e6, times[2] / 1e6);
+        }
+        System.out.print(harness.report());
+    }
+}
@@ -0,0 +1,123 @@
+package bysen;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Marks the points of a launch of the game: when {@code main} started, when the window was
+ * first painted, and when the game became interactive, that is when the game loop runs and
+ * a full frame of the map has been painted. Times are in nanoseconds since the process was
+ * launched if the launcher passed the system property {@value #launchedProperty}, and since
+ * this class was loaded otherwise.
+ * <p>
+ * With {@code -D}{@value #exitProperty}{@code =true} the game prints one {@link #format}
+ * line once it is interactive and exits; {@link StartupHarness} launches the game like that.
+ */
+public final class StartupTimer {
+    static final String exitProperty = "bysen.startup.exit";
+    static final String launchedProperty = "bysen.startup.launched"; // epoch milliseconds
+    static final String reportPrefix = "startup";
+
+    private static final long origin = System.nanoTime();
+    private static final long mainStart = mainStartNanos();
+    private static final AtomicLong firstPaint = new AtomicLong(-1);
+    private static final AtomicLong interactive = new AtomicLong(-1);
+
+    private StartupTimer() {
+    }
+
+    private static long mainStartNanos() {
+        String launched = System.getProperty(launchedProperty);
+        if (launched == null)
+            return 0;
+        try {
+            return Math.max(0, (System.currentTimeMillis() - Long.parseLong(launched)) * 1_000_000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long now() {
+        return mainStart + System.nanoTime() - origin;
+    }
+
+    /**
+     * Marks the start of {@code main}. Call it first, so that the class is loaded then.
+     */
+    public static void begin() {
+        // Loading the class took the time
+    }
+
+    /**
+     * Marks a paint. Only the first one is kept.
+     */
+    public static void firstPaint() {
+        if (firstPaint.get() < 0)
+            firstPaint.compareAndSet(-1, now());
+    }
+
+    /**
+     * Marks the first paint of a ready game. Only the first one is kept. Exits the process
+     * after printing the times if {@value #exitProperty} is set.
+     */
+    public static void interactive() {
+        if (interactive.get() >= 0 || !interactive.compareAndSet(-1, now()))
+            return;
+        firstPaint();
+        if (Boolean.getBoolean(exitProperty)) {
+            System.out.println(format(mainStart, firstPaint.get(), interactive.get()));
+            System.out.flush();
+            Runtime.getRuntime().halt(0); // skip the shutdown of Swing, it is not part of startup
+        }
+    }
+
+    public static long getMainStartNanos() {
+        return mainStart;
+    }
+
+    /**
+     * Returns the time of the first paint, or -1 if the window has not been painted.
+     */
+    public static long getFirstPaintNanos() {
+        return firstPaint.get();
+    }
+
+    /**
+     * Returns the time the game became interactive, or -1 if it has not yet.
+     */
+    public static long getInteractiveNanos() {
+        return interactive.get();
+    }
+
+    /**
+     * Formats the times of a launch as one line, for example
+     * {@code startup main=120000000 firstPaint=310000000 interactive=405000000}.
+     */
+    static String format(long mainStart, long firstPaint, long interactive) {
+        return reportPrefix + " main=" + mainStart + " firstPaint=" + firstPaint + " interactive=" + interactive;
+    }
+
+    /**
+     * Parses a line made by {@link #format}.
+     *
+     * @return The times of main, the first paint and interactive.
+     */
+    static long[] parse(String line) {
+        if (line == null)
+            throw new NullPointerException("Line cannot be null");
+        String[] parts = line.trim().split(" ");
+        String[] keys = {"main=", "firstPaint=", "interactive="};
+        if (parts.length != keys.length + 1 || !parts[0].equals(reportPrefix))
+            throw new IllegalArgumentException("Not a startup line: " + line);
+        long[] times = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (!parts[i + 1].startsWith(keys[i]))
+                throw new IllegalArgumentException("Not a startup line: " + line);
+            try {
+                times[i] = Long.parseLong(parts[i + 1].substring(keys[i].length()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a startup line: " + line, e);
+            }
+        }
+        return times;
+    }
+}
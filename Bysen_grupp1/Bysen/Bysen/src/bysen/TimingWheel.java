@@ -0,0 +1,187 @@
+package bysen;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A hashed timing wheel that schedules int ids, such as the creatures of a
+ * {@link Wanderers}, to fire after a number of ticks. An id is kept in the slot its
+ * deadline hashes to, in a doubly linked list made of int arrays indexed by the id, so
+ * scheduling, cancelling and rescheduling an id are O(1) and do not allocate. A tick only
+ * visits the ids of one slot; ids whose deadline is more than one turn of the wheel away
+ * stay in their slot until their turn comes round.
+ * <p>
+ * The wheel is not thread-safe.
+ */
+public class TimingWheel {
+    static final int defaultSlots = 256;
+    private static final int idle = -1, due = -2;
+
+    private final int mask;
+    private final int[] heads; // first id in each slot, or -1
+    private int[] next, prev;
+    private int[] slots; // the slot an id is in, or idle or due
+    private long[] deadlines;
+    private int[] fired = new int[16];
+    private long now;
+    private int size;
+
+    /**
+     * @param slots The number of slots, a power of two. Delays shorter than this are
+     *              never looked at before they are due.
+     * @param capacity The number of ids to make room for. The wheel grows as needed.
+     */
+    public TimingWheel(int slots, int capacity) {
+        if (slots < 1 || Integer.bitCount(slots) != 1)
+            throw new IllegalArgumentException("Slots must be a power of two");
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        this.mask = slots - 1;
+        this.heads = new int[slots];
+        Arrays.fill(heads, -1);
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.slots = new int[capacity];
+        this.deadlines = new long[capacity];
+        Arrays.fill(this.slots, idle);
+    }
+
+    public TimingWheel() {
+        this(defaultSlots, 0);
+    }
+
+    /**
+     * Returns the current tick.
+     */
+    public long getTick() {
+        return now;
+    }
+
+    /**
+     * Returns the number of scheduled ids.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the id is scheduled.
+     */
+    public boolean isScheduled(int id) {
+        return id >= 0 && id < slots.length && slots[id] >= 0;
+    }
+
+    /**
+     * Returns the tick the id fires at, or -1 if it is not scheduled.
+     */
+    public long getDeadline(int id) {
+        return isScheduled(id) ? deadlines[id] : -1;
+    }
+
+    /**
+     * Schedules an id to fire after a delay, replacing any earlier schedule of the id.
+     *
+     * @param id The id, at least 0.
+     * @param delay The number of ticks until it fires, at least 1.
+     */
+    public void schedule(int id, long delay) {
+        if (id < 0)
+            throw new IllegalArgumentException("Id cannot be negative");
+        if (delay < 1)
+            throw new IllegalArgumentException("Delay must be at least 1");
+        if (id >= slots.length)
+            grow(id + 1);
+        if (slots[id] >= 0)
+            unlink(id);
+        else
+            size++;
+        long deadline = now + delay;
+        int slot = (int) deadline & mask;
+        deadlines[id] = deadline;
+        slots[id] = slot;
+        prev[id] = -1;
+        next[id] = heads[slot];
+        if (heads[slot] != -1)
+            prev[heads[slot]] = id;
+        heads[slot] = id;
+    }
+
+    /**
+     * Cancels the schedule of an id. Does nothing if it is not scheduled, and keeps an id
+     * that is due in the current tick from firing.
+     */
+    public void cancel(int id) {
+        if (id < 0 || id >= slots.length)
+            return;
+        if (slots[id] >= 0) {
+            unlink(id);
+            size--;
+        }
+        slots[id] = idle;
+    }
+
+    /**
+     * Cancels every schedule. The tick is kept.
+     */
+    public void clear() {
+        Arrays.fill(heads, -1);
+        Arrays.fill(slots, idle);
+        size = 0;
+    }
+
+    private void unlink(int id) {
+        int p = prev[id], n = next[id];
+        if (p != -1)
+            next[p] = n;
+        else
+            heads[slots[id]] = n;
+        if (n != -1)
+            prev[n] = p;
+    }
+
+    private void grow(int capacity) {
+        int length = Math.max(capacity, Math.max(16, slots.length * 2));
+        int old = slots.length;
+        next = Arrays.copyOf(next, length);
+        prev = Arrays.copyOf(prev, length);
+        deadlines = Arrays.copyOf(deadlines, length);
+        slots = Arrays.copyOf(slots, length);
+        Arrays.fill(slots, old, length, idle);
+    }
+
+    /**
+     * Moves to the next tick and passes the ids due in it to the consumer, in no particular
+     * order. A fired id is no longer scheduled. The consumer may schedule and cancel any
+     * id; an id cancelled before its turn in this tick does not fire.
+     *
+     * @param consumer Gets the due ids.
+     * @return The number of ids that fired.
+     */
+    public int tick(IntConsumer consumer) {
+        now++;
+        int slot = (int) now & mask;
+        int count = 0;
+        for (int id = heads[slot]; id != -1; ) {
+            int following = next[id];
+            if (deadlines[id] == now) {
+                unlink(id);
+                size--;
+                slots[id] = due;
+                if (count == fired.length)
+                    fired = Arrays.copyOf(fired, count * 2);
+                fired[count++] = id;
+            }
+            id = following;
+        }
+        int firedCount = 0;
+        for (int i = 0; i < count; i++) {
+            int id = fired[i];
+            if (slots[id] != due)
+                continue; // cancelled or rescheduled by an earlier id
+            slots[id] = idle;
+            firedCount++;
+            consumer.accept(id);
+        }
+        return firedCount;
+    }
+}
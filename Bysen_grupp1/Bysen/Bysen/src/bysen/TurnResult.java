@@ -0,0 +1,89 @@
+package bysen;
+
+/**
+ * What the game loop publishes to the view after each command: the outcome, the game state
+ * the view needs to draw, the new messages and any question the player has to answer.
+ * A result is never changed after it has been published.
+ */
+public final class TurnResult {
+    /**
+     * Something the view has to ask the player before the game can go on.
+     */
+    public enum Request { NONE, NAME, QUIZ }
+
+    static final TurnResult initial = new TurnResult(null, Request.NONE, true, 0, 0,
+            new MessageLog(), null, null, null);
+
+    final Outcome outcome;
+    final Request request;
+    final boolean gameOver;
+    final int currRoom, numNets;
+    final MessageLog messages;
+    final String playerName;
+    final String quizQuestion;
+    private final String[] quizOptions;
+
+    TurnResult(Outcome outcome, Request request, boolean gameOver, int currRoom, int numNets,
+               MessageLog messages, String playerName, String quizQuestion, String[] quizOptions) {
+        this.outcome = outcome;
+        this.request = request;
+        this.gameOver = gameOver;
+        this.currRoom = currRoom;
+        this.numNets = numNets;
+        this.messages = messages;
+        this.playerName = playerName;
+        this.quizQuestion = quizQuestion;
+        this.quizOptions = quizOptions;
+    }
+
+    /**
+     * Returns the current state of an engine as a result, with a copy of its messages.
+     * The engine is not changed.
+     *
+     * @param engine The engine.
+     * @param outcome The outcome of the last turn, or null.
+     */
+    static TurnResult of(GameEngine engine, Outcome outcome) {
+        MessageLog messages = new MessageLog();
+        messages.addAll(engine.getMessages());
+        boolean quiz = engine.isQuizPending();
+        return new TurnResult(outcome, quiz ? Request.QUIZ : Request.NONE, engine.isGameOver(),
+                engine.getCurrRoom(), engine.getNumNets(), messages, engine.getPlayerName(),
+                quiz ? engine.getQuizQuestion() : null, quiz ? engine.getQuizOptions() : null);
+    }
+
+    /**
+     * Returns the outcome of the command, or null if the command was not a turn.
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+    public Request getRequest() {
+        return request;
+    }
+    public boolean isGameOver() {
+        return gameOver;
+    }
+    public int getCurrRoom() {
+        return currRoom;
+    }
+    public int getNumNets() {
+        return numNets;
+    }
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Returns the messages of this turn. The log belongs to the result and must not be changed.
+     */
+    public MessageLog getMessages() {
+        return messages;
+    }
+    public String getQuizQuestion() {
+        return quizQuestion;
+    }
+    public String[] getQuizOptions() {
+        return quizOptions == null ? null : quizOptions.clone();
+    }
+}
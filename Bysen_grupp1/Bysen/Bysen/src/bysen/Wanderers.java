@@ -0,0 +1,270 @@
+package bysen;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Creatures that wander the map on their own schedules. Each creature is an id with a type
+ * and a room. A {@link TimingWheel} fires it after a random delay around the period of its
+ * type; it then moves to a random linked room and is scheduled again, so a move costs O(1)
+ * however many creatures there are.
+ * <p>
+ * The creatures of a type in a room are kept in a list, and the room stays on the
+ * {@link CreatureBoard} until the last of them leaves. The board, and the
+ * {@link WarningIndex} it keeps up to date, therefore always match where the creatures
+ * are, and the warnings a player hears are those of the creatures next to them. No creature
+ * walks into the player's room, or into a room linked to it from farther away, so a
+ * creature the player walks into was heard before the move.
+ */
+public class Wanderers {
+    static final int[] defaultPeriods = {3, 8, 2, 5, 4}; // ticks, by creature ordinal
+    private static final Creatures[] creatureValues = Creatures.values();
+
+    private final GameMap map;
+    private final CreatureBoard board;
+    private final RandomGenerator rand;
+    private final TimingWheel wheel;
+    private final int[] periods = defaultPeriods.clone();
+    private final int[] firstInRoom; // [room * creatureCount + type], or -1
+
+    //Creatures, by id
+    private byte[] types = new byte[16]; // -1 if the id is free
+    private int[] rooms = new int[16];
+    private int[] nextInRoom = new int[16]; // also links the free ids
+    private int[] prevInRoom = new int[16];
+    private int ids, live;
+    private int freeIds = -1;
+
+    private int playerRoom = -1;
+    private long moves;
+
+    /**
+     * @param map The map the creatures wander.
+     * @param board The board to keep up to date. It may already hold creatures, see {@link #adopt}.
+     * @param rand The random generator for the delays and the moves.
+     */
+    public Wanderers(GameMap map, CreatureBoard board, RandomGenerator rand) {
+        if (map == null || board == null || rand == null)
+            throw new NullPointerException("Map, board and random generator cannot be null");
+        if (board.getRoomCount() != map.getRoomCount())
+            throw new IllegalArgumentException("Board has " + board.getRoomCount()
+                    + " rooms, map has " + map.getRoomCount());
+        this.map = map;
+        this.board = board;
+        this.rand = rand;
+        this.wheel = new TimingWheel(TimingWheel.defaultSlots, 16);
+        this.firstInRoom = new int[map.getRoomCount() * CreatureBoard.creatureCount];
+        Arrays.fill(firstInRoom, -1);
+    }
+
+    /**
+     * Sets how often the creatures of a type move on average. Each delay is drawn evenly
+     * from 1 to twice the period minus one. Creatures already scheduled keep their delay.
+     *
+     * @param creature The type.
+     * @param period The mean number of ticks between moves, or 0 for creatures that stay.
+     */
+    public void setPeriod(Creatures creature, int period) {
+        if (creature == null)
+            throw new NullPointerException("Creature cannot be null");
+        if (period < 0)
+            throw new IllegalArgumentException("Period cannot be negative");
+        periods[creature.ordinal()] = period;
+    }
+    public int getPeriod(Creatures creature) {
+        return periods[creature.ordinal()];
+    }
+
+    /**
+     * Sets the player's room, or -1 for none. No creature may move into it, or into a room
+     * linked to it unless the creature is already in or next to the player's room.
+     */
+    public void setPlayerRoom(int playerRoom) {
+        this.playerRoom = playerRoom;
+    }
+
+    /**
+     * Returns the number of creatures.
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Returns the number of moves made since the creatures were created.
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    public long getTick() {
+        return wheel.getTick();
+    }
+
+    public int room(int id) {
+        check(id);
+        return rooms[id];
+    }
+
+    public Creatures type(int id) {
+        check(id);
+        return creatureValues[types[id]];
+    }
+
+    private void check(int id) {
+        if (id < 0 || id >= ids || types[id] < 0)
+            throw new IllegalArgumentException("No creature with id " + id);
+    }
+
+    /**
+     * Returns a creature of the type in the room, or -1 if there is none.
+     */
+    public int find(int room, Creatures creature) {
+        return firstInRoom[room * CreatureBoard.creatureCount + creature.ordinal()];
+    }
+
+    /**
+     * Forgets all creatures and takes over the ones on the board, one per room and type.
+     * Used when a game starts or the board is loaded.
+     */
+    public void adopt() {
+        wheel.clear();
+        for (int id = 0; id < ids; id++)
+            if (types[id] >= 0)
+                firstInRoom[rooms[id] * CreatureBoard.creatureCount + types[id]] = -1;
+        ids = live = 0;
+        freeIds = -1;
+        for (Creatures creature : creatureValues) {
+            for (int word = 0; word < board.getWords(); word++) {
+                for (long bits = board.word(creature, word); bits != 0; bits &= bits - 1)
+                    spawn(creature, (word << 6) + Long.numberOfTrailingZeros(bits));
+            }
+        }
+    }
+
+    /**
+     * Adds a creature and schedules its first move.
+     *
+     * @return The id of the creature.
+     */
+    public int spawn(Creatures creature, int room) {
+        if (creature == null)
+            throw new NullPointerException("Creature cannot be null");
+        if (room < 0 || room >= map.getRoomCount())
+            throw new IllegalArgumentException("Room out of range: " + room);
+        int id;
+        if (freeIds != -1) {
+            id = freeIds;
+            freeIds = nextInRoom[id];
+        } else {
+            if (ids == types.length)
+                grow();
+            id = ids++;
+        }
+        types[id] = (byte) creature.ordinal();
+        link(id, room);
+        live++;
+        schedule(id);
+        return id;
+    }
+
+    /**
+     * Removes a creature, for example a Tomte that has asked its question.
+     */
+    public void remove(int id) {
+        check(id);
+        unlink(id);
+        wheel.cancel(id);
+        types[id] = -1;
+        nextInRoom[id] = freeIds;
+        freeIds = id;
+        live--;
+    }
+
+    /**
+     * Moves a creature to a room, linked or not, for the moves the game rules make.
+     * Its schedule is kept.
+     */
+    public void move(int id, int room) {
+        check(id);
+        if (room < 0 || room >= map.getRoomCount())
+            throw new IllegalArgumentException("Room out of range: " + room);
+        unlink(id);
+        link(id, room);
+    }
+
+    /**
+     * Moves on to the next tick and lets the creatures that are due move.
+     *
+     * @return The number of creatures that were due.
+     */
+    public int tick() {
+        return wheel.tick(this::wander);
+    }
+
+    private void wander(int id) {
+        int from = rooms[id];
+        int degree = map.degree(from);
+        if (degree > 0) {
+            int to = map.link(from, rand.nextInt(degree));
+            if (mayEnter(from, to)) {
+                unlink(id);
+                link(id, to);
+                moves++;
+            }
+        }
+        schedule(id);
+    }
+
+    /**
+     * Returns true unless the move would bring a creature next to the player that the
+     * player has not heard.
+     */
+    private boolean mayEnter(int from, int to) {
+        if (playerRoom == -1)
+            return true;
+        if (to == playerRoom)
+            return false;
+        return from == playerRoom || !map.isLinked(playerRoom, to) || map.isLinked(playerRoom, from);
+    }
+
+    private void schedule(int id) {
+        int period = periods[types[id]];
+        if (period > 0)
+            wheel.schedule(id, period == 1 ? 1 : 1 + rand.nextInt(2 * period - 1));
+    }
+
+    private void link(int id, int room) {
+        int slot = room * CreatureBoard.creatureCount + types[id];
+        int first = firstInRoom[slot];
+        rooms[id] = room;
+        prevInRoom[id] = -1;
+        nextInRoom[id] = first;
+        if (first == -1)
+            board.add(room, creatureValues[types[id]]);
+        else
+            prevInRoom[first] = id;
+        firstInRoom[slot] = id;
+    }
+
+    private void unlink(int id) {
+        int room = rooms[id];
+        int p = prevInRoom[id], n = nextInRoom[id];
+        if (p != -1)
+            nextInRoom[p] = n;
+        else
+            firstInRoom[room * CreatureBoard.creatureCount + types[id]] = n;
+        if (n != -1)
+            prevInRoom[n] = p;
+        if (p == -1 && n == -1)
+            board.remove(room, creatureValues[types[id]]);
+    }
+
+    private void grow() {
+        int length = types.length * 2;
+        types = Arrays.copyOf(types, length);
+        rooms = Arrays.copyOf(rooms, length);
+        nextInRoom = Arrays.copyOf(nextInRoom, length);
+        prevInRoom = Arrays.copyOf(prevInRoom, length);
+    }
+}
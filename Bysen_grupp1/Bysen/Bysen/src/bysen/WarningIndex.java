@@ -0,0 +1,61 @@
+package bysen;
+
+import java.util.Arrays;
+
+/**
+ * Keeps, for every room, a mask of the creature warnings that can be heard from it.
+ * A warning is heard when a linked room holds the creature. The index is updated
+ * when a creature is added to or removed from a room, so reading the warnings of a
+ * room is a single array read.
+ */
+public class WarningIndex {
+    private final GameMap map;
+    private final int[] neighbourCounts; // [room * creatureCount + creature]
+    private final int[] warnings;
+
+    /**
+     * @param map The map. A room hears the creatures in the rooms it links to.
+     */
+    public WarningIndex(GameMap map) {
+        this.map = map;
+        this.neighbourCounts = new int[map.getRoomCount() * CreatureBoard.creatureCount];
+        this.warnings = new int[map.getRoomCount()];
+    }
+
+    /**
+     * Returns the warnings heard in a room as a mask with one bit per creature ordinal.
+     */
+    public int warnings(int room) {
+        return warnings[room];
+    }
+
+    /**
+     * Updates the rooms that hear a creature that was added to a room.
+     */
+    void added(int room, int creature) {
+        int bit = 1 << creature;
+        // The links go both ways, so the rooms that hear the creature are the links of its room.
+        for (int i = map.linkStart(room), end = map.linkEnd(room); i < end; i++) {
+            int hearer = map.linkTarget(i);
+            if (neighbourCounts[hearer * CreatureBoard.creatureCount + creature]++ == 0)
+                warnings[hearer] |= bit;
+        }
+    }
+
+    /**
+     * Updates the rooms that heard a creature that was removed from a room.
+     */
+    void removed(int room, int creature) {
+        int bit = 1 << creature;
+        for (int i = map.linkStart(room), end = map.linkEnd(room); i < end; i++) {
+            int hearer = map.linkTarget(i);
+            if (--neighbourCounts[hearer * CreatureBoard.creatureCount + creature] == 0)
+                warnings[hearer] &= ~bit;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(neighbourCounts, 0);
+        Arrays.fill(warnings, 0);
+    }
+}